@@ -0,0 +1,66 @@
+package benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import util.CityCatalog;
+import util.CityGenerator;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CityCatalogBenchmark {
+    private final CityCatalog catalog = CityCatalog.get();
+
+    @State(Scope.Benchmark)
+    public static class Lookup {
+        @Param({"Аб", "Са", "Ч"})
+        public String prefix;
+    }
+
+    @Benchmark
+    public String randomCity() {
+        return CityGenerator.getRandomCity();
+    }
+
+    @Benchmark
+    public String random() {
+        return catalog.random();
+    }
+
+    @Benchmark
+    public String randomWeighted() {
+        return catalog.randomWeighted();
+    }
+
+    @Benchmark
+    public List<String> withPrefix(Lookup lookup) {
+        return catalog.withPrefix(lookup.prefix);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String randomCityFourThreads() {
+        return CityGenerator.getRandomCity();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String randomWeightedFourThreads() {
+        return catalog.randomWeighted();
+    }
+}
@@ -0,0 +1,80 @@
+package benchmark;
+
+import corpus.Corpus;
+import corpus.CorpusWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import util.RequestData;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CorpusBenchmark {
+    private static final int records = 100_000;
+
+    private Path file;
+
+    private Corpus corpus;
+
+    @State(Scope.Thread)
+    public static class Reader {
+        private Corpus.Record record;
+
+        private long index;
+
+        @Setup
+        public void setUp(CorpusBenchmark benchmark) {
+            record = benchmark.corpus.record();
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("orders", ".bin");
+        CorpusWriter.write(file, records, 1);
+        corpus = Corpus.open(file);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        corpus.close();
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public int readRecord(Reader reader) {
+        Corpus.Record record = reader.record.moveTo(reader.index++ % records);
+        return record.name().length() + record.phone().length() + record.daysAhead();
+    }
+
+    @Benchmark
+    public RequestData toRequestData(Reader reader) {
+        return reader.record.moveTo(reader.index++ % records).toRequestData();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int readRecordFourThreads(Reader reader) {
+        Corpus.Record record = reader.record.moveTo(reader.index++ % records);
+        return record.name().length() + record.phone().length() + record.daysAhead();
+    }
+}
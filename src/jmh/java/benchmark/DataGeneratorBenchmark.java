@@ -0,0 +1,78 @@
+package benchmark;
+
+import com.github.javafaker.Faker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import util.DataGeneratorValidInfo;
+import util.RequestData;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DataGeneratorBenchmark {
+
+    @Param({"ru", "en"})
+    public String language;
+
+    private Locale locale;
+
+    private RequestData[] buffer;
+
+    @Setup
+    public void setUp() {
+        locale = new Locale(language);
+        buffer = new RequestData[1000];
+    }
+
+    /**
+     * What generateUsersData cost before Faker instances were reused: a new Faker per record.
+     */
+    @Benchmark
+    public RequestData newFakerPerRecord() {
+        Faker faker = new Faker(new Locale(locale.toLanguageTag()));
+        return new RequestData(faker.name().fullName(), faker.phoneNumber().phoneNumber());
+    }
+
+    @Benchmark
+    public RequestData generateUsersData() {
+        return DataGeneratorValidInfo.generateUsersData(locale);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public RequestData generateUsersDataFourThreads() {
+        return DataGeneratorValidInfo.generateUsersData(locale);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public RequestData[] generateThousandIntoBuffer() {
+        return DataGeneratorValidInfo.generate(locale, buffer);
+    }
+
+    /**
+     * Consumes every record: count() of the sized stream would skip generating them.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void streamThousandSeeded(Blackhole blackhole) {
+        DataGeneratorValidInfo.stream(locale, 1000, 42).forEach(blackhole::consume);
+    }
+}
@@ -1,15 +1,25 @@
+import artifact.FailureCapture;
 import com.codeborne.selenide.Condition;
-import com.codeborne.selenide.Selectors;
-import com.codeborne.selenide.SelenideElement;
-import com.codeborne.selenide.logevents.SelenideLogger;
-import io.qameta.allure.selenide.AllureSelenide;
-import org.junit.jupiter.api.AfterAll;
-import org.junit.jupiter.api.BeforeAll;
+import extension.BrowserPool;
+import extension.DurationOrder;
+import extension.ShardCondition;
+import extension.SutExtension;
+import fixture.FuzzedInputSource;
+import fixture.StreamingCsvSource;
+import metrics.LatencyExtension;
+import order.Order;
+import order.OrderChannel;
+import order.OrderChannels;
+import order.OrderOutcome;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.junit.jupiter.api.condition.DisabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
-import org.junit.jupiter.params.provider.CsvFileSource;
-import org.openqa.selenium.Keys;
+import page.CardDeliveryForm;
+import stub.Sut;
+import util.CityCatalog;
 import util.CityGenerator;
 import util.DataGeneratorValidInfo;
 import util.RequestData;
@@ -21,8 +31,12 @@ import java.util.Locale;
 import static com.codeborne.selenide.Selenide.*;
 import static org.junit.jupiter.api.Assertions.*;
 
+@ExtendWith({ShardCondition.class, SutExtension.class, BrowserPool.class, LatencyExtension.class, FailureCapture.class})
+@TestMethodOrder(DurationOrder.class)
 class CardDeliveryOrderTests {
-    private static final String url = "http://localhost:9999/";
+    private static final String url = Sut.url();
+    // -Dorder.channel=api talks to the stand-in only; against the app keep the browser channel
+    private static final OrderChannel channel = OrderChannels.forUrl(url);
     private static final String validDayOfMeeting = LocalDate.now().plusDays(3)
             .format(DateTimeFormatter.ofPattern("ddMMyyyy"));
     private static final String anotherValidDayOfMeeting = LocalDate.now().plusDays(5)
@@ -31,7 +45,6 @@ class CardDeliveryOrderTests {
             .format(DateTimeFormatter.ofPattern("dd.MM.yyyy"));
     private static final String invalidDayOfMeeting = LocalDate.now()
             .format(DateTimeFormatter.ofPattern("ddMMyyyy"));
-    private static final String sendRequestButtonName = "Запланировать";
     private static final String invalidNameErrorText = "Имя и Фамилия указаные неверно. Допустимы только русские буквы, " +
             "пробелы и дефисы.";
     private static final String invalidTelErrorText = "Телефон указан неверно. Должно быть 11 цифр, например, +79012345678";
@@ -40,173 +53,81 @@ class CardDeliveryOrderTests {
     private static final String nullFieldErrorText = "Поле обязательно для заполнения";
     private static final String invalidTypeOfDateErrorText = "Неверно введена дата";
 
-    @BeforeAll
-    static void setUpAll(){
-        SelenideLogger.addListener("allure",new AllureSelenide());
-    }
-
-    @AfterAll
-    static void tearDownAll(){
-        SelenideLogger.removeListener("allure");
-    }
-
     @DisplayName("Happy path test")
     @Test
     void shouldSubmitRequest() {
         RequestData requestData = DataGeneratorValidInfo.generateUsersData(new Locale("ru"));
-        open(url);
-        //Finding elements
-        SelenideElement name = $("[name='name']");
-        SelenideElement city = $("[placeholder = 'Город']");
-        SelenideElement tel = $("[name='phone']");
-        SelenideElement date = $("[placeholder = 'Дата встречи']");
-        //Setting values
-        city.setValue(CityGenerator.getRandomCity());
-        date.setValue("\b\b\b\b\b\b\b\b\b\b");
-        date.setValue(validDayOfMeeting);
-        name.setValue(requestData.getName());
-        tel.setValue(requestData.getTel());
-
-        $(".checkbox__box").click();
-        $(new Selectors.ByText(sendRequestButtonName)).click();
-        $("[data-test-id='success-notification']").waitUntil(Condition.visible, 15000);
+        OrderOutcome outcome = channel.submit(new Order(CityGenerator.getRandomCity(), validDayOfMeeting, requestData));
+        assertEquals(OrderOutcome.Status.SCHEDULED, outcome.getStatus(), outcome::toString);
     }
 
     @DisplayName("Test should decline requests with invalid names")
-    @CsvFileSource(resources = "/invalidnames.csv", numLinesToSkip = 1)
+    @StreamingCsvSource(resources = "/invalidnames.csv", numLinesToSkip = 1)
     @ParameterizedTest
     void shouldDeclineRequestForInvalidName(String invalidName) {
         RequestData requestData = DataGeneratorValidInfo.generateUsersData(new Locale("ru"));
-        open(url);
-        //Finding elements
-        SelenideElement name = $("[name='name']");
-        SelenideElement city = $("[placeholder = 'Город']");
-        SelenideElement tel = $("[name='phone']");
-        SelenideElement date = $("[placeholder = 'Дата встречи']");
-        //Setting values
-        city.setValue(CityGenerator.getRandomCity());
-        date.setValue("\b\b\b\b\b\b\b\b\b\b");
-        date.setValue(validDayOfMeeting);
-
-        $("[name='name']").setValue(invalidName);
-        $("[name='phone']").setValue(requestData.getTel());
-        $(".checkbox__box").click();
-        $(new Selectors.ByText(sendRequestButtonName)).click();
-        $("[data-test-id='name'] .input__sub").shouldHave(Condition
-                .exactText(invalidNameErrorText));
+        OrderOutcome outcome = channel.submit(new Order(CityGenerator.getRandomCity(), validDayOfMeeting,
+                invalidName, requestData.getTel(), true));
+        assertRejected(outcome, "name", invalidNameErrorText);
     }
 
     @DisplayName("Test should decline requests with invalid phone number")
-    @CsvFileSource(resources = "/invalidtel.csv", numLinesToSkip = 1)
+    @StreamingCsvSource(resources = "/invalidtel.csv", numLinesToSkip = 1)
     @ParameterizedTest
     void shouldDeclineRequestForInvalidTel(String invalidTel) {
         RequestData requestData = DataGeneratorValidInfo.generateUsersData(new Locale("ru"));
-        open(url);
-        //Finding elements
-        SelenideElement name = $("[name='name']");
-        SelenideElement city = $("[placeholder = 'Город']");
-        SelenideElement tel = $("[name='phone']");
-        SelenideElement date = $("[placeholder = 'Дата встречи']");
-        //Setting values
-        city.setValue(CityGenerator.getRandomCity());
-        date.setValue("\b\b\b\b\b\b\b\b\b\b");
-        date.setValue(validDayOfMeeting);
-        name.setValue(requestData.getName());
-        tel.setValue(invalidTel);
-
-        $(".checkbox__box").click();
-        $(new Selectors.ByText(sendRequestButtonName)).click();
-        $("[data-test-id='phone'] .input__sub").shouldHave(Condition
-                .exactText(invalidTelErrorText));
+        OrderOutcome outcome = channel.submit(new Order(CityGenerator.getRandomCity(), validDayOfMeeting,
+                requestData.getName(), invalidTel, true));
+        assertRejected(outcome, "phone", invalidTelErrorText);
     }
 
     @DisplayName("Test should decline requests with invalid city")
     @Test
     void shouldDeclineRequestForInvalidCity() {
         RequestData requestData = DataGeneratorValidInfo.generateUsersData(new Locale("ru"));
-        open(url);
-        //Finding elements
-        SelenideElement name = $("[name='name']");
-        SelenideElement city = $("[placeholder = 'Город']");
-        SelenideElement tel = $("[name='phone']");
-        SelenideElement date = $("[placeholder = 'Дата встречи']");
-        //Setting values
-        city.setValue("Сосновый Бор");
-        date.setValue("\b\b\b\b\b\b\b\b\b\b");
-        date.setValue(validDayOfMeeting);
-        name.setValue(requestData.getName());
-        tel.setValue(requestData.getTel());
-
-        $(".checkbox__box").click();
-        $(new Selectors.ByText(sendRequestButtonName)).click();
-        $("[data-test-id='city'] .input__sub").shouldHave(Condition
-                .exactText(invalidCityErrorText));
+        OrderOutcome outcome = channel.submit(new Order("Сосновый Бор", validDayOfMeeting, requestData));
+        assertRejected(outcome, "city", invalidCityErrorText);
     }
 
     @DisplayName("Test should decline requests with invalid date")
     @Test
     void shouldDeclineRequestForInvalidDate() {
         RequestData requestData = DataGeneratorValidInfo.generateUsersData(new Locale("ru"));
-        open(url);
-        //Finding elements
-        SelenideElement name = $("[name='name']");
-        SelenideElement city = $("[placeholder = 'Город']");
-        SelenideElement tel = $("[name='phone']");
-        SelenideElement date = $("[placeholder = 'Дата встречи']");
-        //Setting values
-        city.setValue(CityGenerator.getRandomCity());
-        date.setValue("\b\b\b\b\b\b\b\b\b\b");
-        date.setValue(invalidDayOfMeeting);
-        name.setValue(requestData.getName());
-        tel.setValue(requestData.getTel());
-
-        $(".checkbox__box").click();
-        $(new Selectors.ByText(sendRequestButtonName)).click();
-        $(new Selectors.ByText("Заказ на выбранную дату невозможен")).shouldHave(Condition
-                .exactText(invalidDateErrorText));
+        OrderOutcome outcome = channel.submit(new Order(CityGenerator.getRandomCity(), invalidDayOfMeeting, requestData));
+        assertRejected(outcome, "date", invalidDateErrorText);
     }
 
     @DisplayName("Test should decline requests with invalid type of date")
     @Test
     void shouldDeclineRequestForInvalidTypeOfDate() {
         RequestData requestData = DataGeneratorValidInfo.generateUsersData(new Locale("ru"));
-        open(url);
-        //Finding elements
-        SelenideElement name = $("[name='name']");
-        SelenideElement city = $("[placeholder = 'Город']");
-        SelenideElement tel = $("[name='phone']");
-        SelenideElement date = $("[placeholder = 'Дата встречи']");
-        //Setting values
-        city.setValue(CityGenerator.getRandomCity());
-        date.setValue("\b\b\b\b\b\b\b\b\b\b");
-        date.setValue(LocalDate.now().toString().replaceAll("-", ""));
-        name.setValue(requestData.getName());
-        tel.setValue(requestData.getTel());
+        OrderOutcome outcome = channel.submit(new Order(CityGenerator.getRandomCity(),
+                LocalDate.now().toString().replaceAll("-", ""), requestData));
+        assertRejected(outcome, "date", invalidTypeOfDateErrorText);
+    }
 
-        $(".checkbox__box").click();
-        $(new Selectors.ByText(sendRequestButtonName)).click();
-        $(new Selectors.ByText("Неверно введена дата")).shouldHave(Condition
-                .exactText(invalidTypeOfDateErrorText));
+    // the oracle's rules are checked against the stand-in only, not yet against the app
+    @DisplayName("Test should decline fuzzed invalid input, one value per equivalence class")
+    @DisabledIfSystemProperty(named = "sut.url", matches = ".+")
+    @FuzzedInputSource
+    @ParameterizedTest(name = "[{index}] {0} = \"{1}\"")
+    void shouldDeclineRequestForFuzzedInput(String field, String description, String input, String errorText) {
+        RequestData requestData = DataGeneratorValidInfo.generateUsersData(new Locale("ru"));
+        OrderOutcome outcome = channel.submit(new Order(
+                "city".equals(field) ? input : CityGenerator.getRandomCity(),
+                "date".equals(field) ? input : validDayOfMeeting,
+                "name".equals(field) ? input : requestData.getName(),
+                "phone".equals(field) ? input : requestData.getTel(), true));
+        assertRejected(outcome, field, errorText);
     }
 
     @DisplayName("Test should decline requests if checkbox is not checked")
+    @DisabledIfSystemProperty(named = "order.channel", matches = "api")
     @Test
     void shouldDeclineRequestForNotCheckedCheckbox() {
         RequestData requestData = DataGeneratorValidInfo.generateUsersData(new Locale("ru"));
-        open(url);
-        //Finding elements
-        SelenideElement name = $("[name='name']");
-        SelenideElement city = $("[placeholder = 'Город']");
-        SelenideElement tel = $("[name='phone']");
-        SelenideElement date = $("[placeholder = 'Дата встречи']");
-        //Setting values
-        city.setValue(CityGenerator.getRandomCity());
-        date.setValue("\b\b\b\b\b\b\b\b\b\b");
-        date.setValue(validDayOfMeeting);
-        name.setValue(requestData.getName());
-        tel.setValue(requestData.getTel());
-
-        $(new Selectors.ByText(sendRequestButtonName)).click();
+        CardDeliveryForm form = CardDeliveryForm.open(url);
+        form.fill(CityGenerator.getRandomCity(), validDayOfMeeting, requestData).submitAndAwait();
         final String colorRedRGB = "rgba(255, 92, 92, 1)";
         String actualColor = $("[data-test-id='agreement'] .checkbox__text")
                 .getCssValue("color");
@@ -217,145 +138,70 @@ class CardDeliveryOrderTests {
     @Test
     void shouldDeclineRequestForNullCity() {
         RequestData requestData = DataGeneratorValidInfo.generateUsersData(new Locale("ru"));
-        open(url);
-        //Finding elements
-        SelenideElement name = $("[name='name']");
-        SelenideElement city = $("[placeholder = 'Город']");
-        SelenideElement tel = $("[name='phone']");
-        SelenideElement date = $("[placeholder = 'Дата встречи']");
-        //Setting values
-        city.setValue(null);
-        date.setValue("\b\b\b\b\b\b\b\b\b\b");
-        date.setValue(validDayOfMeeting);
-        name.setValue(requestData.getName());
-        tel.setValue(requestData.getTel());
-
-        $(".checkbox__box").click();
-        $(new Selectors.ByText(sendRequestButtonName)).click();
-        $("[data-test-id='city'] .input__sub").shouldHave(Condition
-                .exactText(nullFieldErrorText));
+        OrderOutcome outcome = channel.submit(new Order(null, validDayOfMeeting, requestData));
+        assertRejected(outcome, "city", nullFieldErrorText);
     }
 
     @DisplayName("Test should decline requests if name in not entered")
     @Test
     void shouldDeclineRequestForNullName() {
         RequestData requestData = DataGeneratorValidInfo.generateUsersData(new Locale("ru"));
-        open(url);
-        //Finding elements
-        SelenideElement name = $("[name='name']");
-        SelenideElement city = $("[placeholder = 'Город']");
-        SelenideElement tel = $("[name='phone']");
-        SelenideElement date = $("[placeholder = 'Дата встречи']");
-        //Setting values
-        city.setValue(CityGenerator.getRandomCity());
-        date.setValue("\b\b\b\b\b\b\b\b\b\b");
-        date.setValue(validDayOfMeeting);
-        name.setValue(null);
-        tel.setValue(requestData.getTel());
-
-        $(new Selectors.ByText(sendRequestButtonName)).click();
-        $("[data-test-id='name'] .input__sub").shouldHave(Condition
-                .exactText(nullFieldErrorText));
+        OrderOutcome outcome = channel.submit(new Order(CityGenerator.getRandomCity(), validDayOfMeeting,
+                null, requestData.getTel(), false));
+        assertRejected(outcome, "name", nullFieldErrorText);
     }
 
     @DisplayName("Test should decline requests if date in not entered")
     @Test
     void shouldDeclineRequestForNullDate() {
         RequestData requestData = DataGeneratorValidInfo.generateUsersData(new Locale("ru"));
-        open(url);
-        //Finding elements
-        SelenideElement name = $("[name='name']");
-        SelenideElement city = $("[placeholder = 'Город']");
-        SelenideElement tel = $("[name='phone']");
-        SelenideElement date = $("[placeholder = 'Дата встречи']");
-        //Setting values
-        city.setValue(CityGenerator.getRandomCity());
-        date.setValue("\b\b\b\b\b\b\b\b\b\b");
-        date.setValue(null);
-        name.setValue(requestData.getName());
-        tel.setValue(requestData.getTel());
-
-        $(".checkbox__box").click();
-        $(new Selectors.ByText(sendRequestButtonName)).click();
-        $(new Selectors.ByText(invalidTypeOfDateErrorText))
-                .shouldHave(Condition.exactText(invalidTypeOfDateErrorText));
+        OrderOutcome outcome = channel.submit(new Order(CityGenerator.getRandomCity(), null, requestData));
+        assertRejected(outcome, "date", invalidTypeOfDateErrorText);
     }
 
     @DisplayName("Test should decline requests if phone number in not entered")
     @Test
     void shouldDeclineRequestForNullTel() {
         RequestData requestData = DataGeneratorValidInfo.generateUsersData(new Locale("ru"));
-        open(url);
-        //Finding elements
-        SelenideElement name = $("[name='name']");
-        SelenideElement city = $("[placeholder = 'Город']");
-        SelenideElement tel = $("[name='phone']");
-        SelenideElement date = $("[placeholder = 'Дата встречи']");
-        //Setting values
-        city.setValue(CityGenerator.getRandomCity());
-        date.setValue("\b\b\b\b\b\b\b\b\b\b");
-        date.setValue(validDayOfMeeting);
-        name.setValue(requestData.getName());
-        tel.setValue(null);
-
-        $(".checkbox__box").click();
-        $(new Selectors.ByText(sendRequestButtonName)).click();
-        $("[data-test-id='phone'] .input__sub").shouldHave(Condition
-                .exactText(nullFieldErrorText));
+        OrderOutcome outcome = channel.submit(new Order(CityGenerator.getRandomCity(), validDayOfMeeting,
+                requestData.getName(), null, true));
+        assertRejected(outcome, "phone", nullFieldErrorText);
     }
 
     @DisplayName("Happy path test, city is chosen from appeared list ")
+    @DisabledIfSystemProperty(named = "order.channel", matches = "api")
     @Test
     void shouldSubmitRequestWhenCityChosenFromAppearedList() {
         RequestData requestData = DataGeneratorValidInfo.generateUsersData(new Locale("ru"));
-        open(url);
-        //Finding elements
-        SelenideElement name = $("[name='name']");
-        SelenideElement city = $("[placeholder = 'Город']");
-        SelenideElement tel = $("[name='phone']");
-        SelenideElement date = $("[placeholder = 'Дата встречи']");
-        //Setting values
-        city.setValue("Аб");
-        $(".menu-item__control").click();
-        date.setValue("\b\b\b\b\b\b\b\b\b\b");
-        date.setValue(validDayOfMeeting);
-        name.setValue(requestData.getName());
-        tel.setValue(requestData.getTel());
-
-        $(".checkbox__box").click();
-        $(new Selectors.ByText(sendRequestButtonName)).click();
+        String cityPrefix = "Аб";
+        String expectedCity = CityCatalog.get().withPrefix(cityPrefix).get(0);
+        CardDeliveryForm form = CardDeliveryForm.open(url);
+        form.setCity(cityPrefix);
+        $$(".menu-item__control").findBy(Condition.exactText(expectedCity)).click();
+        $("[placeholder = 'Город']").shouldHave(Condition.value(expectedCity));
+        form.fill(validDayOfMeeting, requestData).agree().submitAndAwait();
         $("[data-test-id='success-notification']").waitUntil(Condition.visible, 15000);
     }
 
     @DisplayName("Test for changing day of meeting")
+    @DisabledIfSystemProperty(named = "order.channel", matches = "api")
     @Test
     void shouldSubmitChangeDateOfMeeting() {
         RequestData requestData = DataGeneratorValidInfo.generateUsersData(new Locale("ru"));
-        open(url);
-        //Finding elements
-        SelenideElement name = $("[name='name']");
-        SelenideElement city = $("[placeholder = 'Город']");
-        SelenideElement tel = $("[name='phone']");
-        SelenideElement date = $("[placeholder = 'Дата встречи']");
-        //Setting values
-        city.setValue(CityGenerator.getRandomCity());
-        date.setValue(Keys.chord(Keys.CONTROL, "a", Keys.DELETE));
-        date.setValue(validDayOfMeeting);
-        name.setValue(requestData.getName());
-        tel.setValue(requestData.getTel());
-
-        $(".checkbox__box").click();
-        $(new Selectors.ByText(sendRequestButtonName)).click();
+        CardDeliveryForm form = CardDeliveryForm.open(url);
+        form.fill(CityGenerator.getRandomCity(), validDayOfMeeting, requestData).agree().submitAndAwait();
         $("[data-test-id='success-notification']").waitUntil(Condition.visible, 15000);
-        date.setValue("\b\b\b\b\b\b\b\b\b\b"); //пробывал date.setValue(Keys.chord(Keys.CONTROL, "a", Keys.DELETE)); -
-        // не работает причины не понял
-        date.setValue(anotherValidDayOfMeeting);
-        $(new Selectors.ByText(sendRequestButtonName)).click();
-        $(new Selectors.ByText("Перепланировать")).click();
-        $(".notification__content").shouldHave(Condition
-                .text("Встреча успешно запланирована на " + anotherValidDayOfMeetingForTestFormat));
+        form.setDate(anotherValidDayOfMeeting).submitAndAwait();
+        form.replanAndAwait(anotherValidDayOfMeetingForTestFormat);
+        $(".notification__content").waitUntil(Condition
+                .text("Встреча успешно запланирована на " + anotherValidDayOfMeetingForTestFormat), 15000);
         System.out.println(validDayOfMeeting);
         System.out.println(anotherValidDayOfMeeting);
         System.out.println(anotherValidDayOfMeetingForTestFormat);
     }
+
+    private static void assertRejected(OrderOutcome outcome, String field, String errorText) {
+        assertEquals(OrderOutcome.Status.REJECTED, outcome.getStatus(), outcome::toString);
+        assertEquals(errorText, outcome.getError(field), outcome::toString);
+    }
 }
@@ -0,0 +1,136 @@
+package api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import order.Order;
+import order.OrderChannel;
+import order.OrderOutcome;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Places orders with a plain HTTP request instead of a browser.
+ * <p>
+ * The app takes a JSON order on {@code -Dorder.api.path} (default
+ * {@code api/delivery/order}) and answers with 200 and status SCHEDULED,
+ * 409 and status REPLAN_REQUIRED, or 400 and status REJECTED with the
+ * invalid field and its error text. Any other answer, such as an unknown
+ * status or a body that isn't JSON, is NO_RESPONSE with the HTTP code and
+ * body as its message. Connections are kept alive between requests and
+ * the client is safe to share between threads.
+ * <p>
+ * This contract is the one {@link stub.CardDeliveryStub} serves and was not
+ * derived from app-card-delivery.jar, so the client is for the stand-in only:
+ * against the jar every order is NO_RESPONSE.
+ */
+public class OrderApiClient implements OrderChannel {
+    private static final int timeoutMillis = 15000;
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final URL endpoint;
+
+    public OrderApiClient(String url) {
+        try {
+            this.endpoint = new URL(new URL(url), System.getProperty("order.api.path", "api/delivery/order"));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Bad app url " + url, e);
+        }
+    }
+
+    /**
+     * Sends one order and fails unless the answer follows this contract,
+     * i.e. unless the url points at the stand-in.
+     */
+    public OrderApiClient requireStandIn(Order order) {
+        OrderOutcome outcome = submit(order);
+        if (outcome.getStatus() == OrderOutcome.Status.NO_RESPONSE) {
+            throw new IllegalStateException("No stand-in order API at " + endpoint + ": " + outcome);
+        }
+        return this;
+    }
+
+    @Override
+    public OrderOutcome submit(Order order) {
+        return send(order, false);
+    }
+
+    @Override
+    public OrderOutcome replan(Order order) {
+        return send(order, true);
+    }
+
+    private OrderOutcome send(Order order, boolean replan) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("city", valueOf(order.getCity()));
+        values.put("date", Order.maskDate(order.getDate()));
+        values.put("name", valueOf(order.getName()));
+        values.put("phone", valueOf(order.getTel()));
+        values.put("agreement", order.isAgreement());
+        values.put("replan", replan);
+        try {
+            byte[] body = mapper.writeValueAsBytes(values);
+            HttpURLConnection connection = (HttpURLConnection) endpoint.openConnection();
+            connection.setConnectTimeout(timeoutMillis);
+            connection.setReadTimeout(timeoutMillis);
+            connection.setRequestMethod("POST");
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(body.length);
+            connection.setRequestProperty("Content-Type", "application/json; charset=utf-8");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body);
+            }
+            int code = connection.getResponseCode();
+            InputStream stream = code < 400 ? connection.getInputStream() : connection.getErrorStream();
+            String response = stream == null ? "" : read(stream);
+            return outcomeOf(code, response);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Order request to " + endpoint + " failed", e);
+        }
+    }
+
+    private static OrderOutcome outcomeOf(int code, String response) {
+        JsonNode values;
+        try {
+            values = response.isEmpty() ? null : mapper.readTree(response);
+        } catch (IOException e) {
+            values = null;
+        }
+        String status = text(values, "status");
+        for (OrderOutcome.Status known : OrderOutcome.Status.values()) {
+            if (known.name().equals(status)) {
+                return new OrderOutcome(known, text(values, "field"), text(values, "message"));
+            }
+        }
+        return new OrderOutcome(OrderOutcome.Status.NO_RESPONSE, null, "HTTP " + code + " " + response);
+    }
+
+    private static String text(JsonNode values, String key) {
+        JsonNode value = values == null ? null : values.get(key);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static String read(InputStream stream) throws IOException {
+        try (InputStream in = stream) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String valueOf(String value) {
+        return value == null ? "" : value;
+    }
+}
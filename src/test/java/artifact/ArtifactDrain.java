@@ -0,0 +1,23 @@
+package artifact;
+
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+
+/**
+ * Waits for failure artifacts still being written when the run finishes,
+ * so the Allure results are complete before the report is built.
+ */
+public class ArtifactDrain implements TestExecutionListener {
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        try {
+            String summary = ArtifactWriter.drain();
+            if (summary != null) {
+                System.out.println(summary);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
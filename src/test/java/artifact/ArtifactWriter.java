@@ -0,0 +1,139 @@
+package artifact;
+
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Encodes and writes failure artifacts on a small background pool.
+ * <p>
+ * The Allure attachment is registered on the test thread, so it lands in the
+ * right test, and only the bytes are written later. Screenshots arrive as the
+ * driver's base64 PNG and are stored as JPEG. The queue is bounded: when it is
+ * full the test thread writes the artifact itself, which slows failing tests
+ * down instead of piling up screenshots in memory.
+ */
+public final class ArtifactWriter {
+    private static final int threads = Integer.getInteger("artifacts.threads", 2);
+    private static final int queue = Integer.getInteger("artifacts.queue", 16);
+    private static final float jpegQuality = Float.parseFloat(System.getProperty("artifacts.jpeg.quality", "0.75"));
+    private static final ThreadPoolExecutor executor = newExecutor();
+    private static final AtomicInteger pending = new AtomicInteger();
+    private static final AtomicInteger written = new AtomicInteger();
+    private static final AtomicInteger inline = new AtomicInteger();
+    private static final AtomicLong originalBytes = new AtomicLong();
+    private static final AtomicLong writtenBytes = new AtomicLong();
+
+    private ArtifactWriter() {
+    }
+
+    public static void screenshot(String name, String base64Png) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        String source = lifecycle.prepareAttachment(name, "image/jpeg", ".jpg");
+        submit(() -> {
+            byte[] png = Base64.getDecoder().decode(base64Png);
+            write(lifecycle, source, png.length, toJpeg(png));
+        });
+    }
+
+    public static void pageSource(String name, String html) {
+        AllureLifecycle lifecycle = Allure.getLifecycle();
+        String source = lifecycle.prepareAttachment(name, "text/html", ".html");
+        submit(() -> {
+            byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+            write(lifecycle, source, bytes.length, bytes);
+        });
+    }
+
+    /**
+     * Waits for queued artifacts to be written; returns a one-line summary, or null when nothing was captured.
+     */
+    public static String drain() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+        while (pending.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        if (written.get() == 0) {
+            return null;
+        }
+        return String.format(Locale.ROOT, "Failure artifacts: %d written (%d by test threads), %,d KiB encoded to %,d KiB",
+                written.get(), inline.get(), originalBytes.get() / 1024, writtenBytes.get() / 1024);
+    }
+
+    private static void submit(Runnable task) {
+        pending.incrementAndGet();
+        executor.execute(() -> {
+            try {
+                if (!Thread.currentThread().getName().startsWith("artifact-writer")) {
+                    inline.incrementAndGet();
+                }
+                task.run();
+            } finally {
+                pending.decrementAndGet();
+            }
+        });
+    }
+
+    private static void write(AllureLifecycle lifecycle, String source, long original, byte[] bytes) {
+        lifecycle.writeAttachment(source, new ByteArrayInputStream(bytes));
+        written.incrementAndGet();
+        originalBytes.addAndGet(original);
+        writtenBytes.addAndGet(bytes.length);
+    }
+
+    static byte[] toJpeg(byte[] png) {
+        try {
+            BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+            if (image == null) {
+                return png;
+            }
+            // JPEG has no alpha channel
+            BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+            rgb.setRGB(0, 0, image.getWidth(), image.getHeight(),
+                    image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth()),
+                    0, image.getWidth());
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            ByteArrayOutputStream jpeg = new ByteArrayOutputStream(png.length / 4);
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(jpeg)) {
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(rgb, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            return jpeg.toByteArray();
+        } catch (IOException e) {
+            return png;
+        }
+    }
+
+    private static ThreadPoolExecutor newExecutor() {
+        AtomicInteger number = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS, new ArrayBlockingQueue<>(queue),
+                task -> {
+                    Thread thread = new Thread(task, "artifact-writer-" + number.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+}
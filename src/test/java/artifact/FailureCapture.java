@@ -0,0 +1,36 @@
+package artifact;
+
+import com.codeborne.selenide.WebDriverRunner;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * Grabs a screenshot and the page source when a test fails, whether a
+ * Selenide step or a plain JUnit assertion failed it, and hands them to
+ * {@link ArtifactWriter}. It runs on the test thread right after the test
+ * method, before any after-each callback can close the browser. The test
+ * thread only pays for the two driver calls; the screenshot stays base64
+ * until the writer decodes it.
+ */
+public class FailureCapture implements AfterTestExecutionCallback {
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        if (!context.getExecutionException().isPresent() || !WebDriverRunner.hasWebDriverStarted()) {
+            return;
+        }
+        WebDriver driver = WebDriverRunner.getWebDriver();
+        try {
+            String screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64);
+            String pageSource = driver.getPageSource();
+            ArtifactWriter.screenshot("Screenshot", screenshot);
+            ArtifactWriter.pageSource("Page source", pageSource);
+        } catch (WebDriverException e) {
+            // the browser is gone; the test failure itself is what matters
+        }
+    }
+}
@@ -0,0 +1,279 @@
+package corpus;
+
+import util.RequestData;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Memory-mapped order corpus written by {@link CorpusWriter}.
+ * <p>
+ * Records are read through {@link Record} flyweights: moving one to another
+ * record decodes its name and phone into the flyweight's own char arrays, so
+ * reading allocates nothing until a value is turned into a String. A corpus
+ * can be shared by any number of threads, each with its own flyweights.
+ * <p>
+ * Workers get disjoint records either from {@link #partition} (contiguous
+ * ranges, no coordination) or from one {@link #shared()} cursor that hands
+ * out each record once.
+ */
+public final class Corpus implements AutoCloseable {
+    // whole records per mapping, a single mapping is limited to 2 GB
+    private static final long segmentRecords = Integer.MAX_VALUE / CorpusFormat.recordSize;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer[] segments;
+    private final long size;
+    private final long seed;
+    private final String[] cities;
+    private final AtomicLong shared = new AtomicLong();
+
+    private Corpus(FileChannel channel, MappedByteBuffer[] segments, long size, long seed, String[] cities) {
+        this.channel = channel;
+        this.segments = segments;
+        this.size = size;
+        this.seed = seed;
+        this.cities = cities;
+    }
+
+    public static Corpus open(Path file) {
+        try {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    Math.min(channel.size(), 64 * 1024));
+            if (header.getInt() != CorpusFormat.magic || header.getShort() != CorpusFormat.version
+                    || header.getShort() != CorpusFormat.recordSize) {
+                channel.close();
+                throw new IllegalArgumentException(file + " is not an order corpus of version " + CorpusFormat.version);
+            }
+            long size = header.getLong();
+            long seed = header.getLong();
+            String[] cities = new String[header.getShort() & 0xffff];
+            for (int i = 0; i < cities.length; i++) {
+                byte[] name = new byte[header.getShort() & 0xffff];
+                header.get(name);
+                cities[i] = new String(name, StandardCharsets.UTF_8);
+            }
+            long headerSize = (header.position() + CorpusFormat.recordSize - 1)
+                    / CorpusFormat.recordSize * CorpusFormat.recordSize;
+            if (channel.size() < headerSize + size * CorpusFormat.recordSize) {
+                channel.close();
+                throw new IllegalArgumentException(file + " is truncated");
+            }
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((size + segmentRecords - 1) / segmentRecords)];
+            for (int i = 0; i < segments.length; i++) {
+                long first = i * segmentRecords;
+                long records = Math.min(segmentRecords, size - first);
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        headerSize + first * CorpusFormat.recordSize, records * CorpusFormat.recordSize);
+            }
+            return new Corpus(channel, segments, size, seed, cities);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't open the corpus " + file, e);
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long seed() {
+        return seed;
+    }
+
+    /**
+     * A flyweight to read records with, not positioned yet.
+     */
+    public Record record() {
+        return new Record();
+    }
+
+    /**
+     * The {@code index}-th of {@code count} contiguous, disjoint ranges of records.
+     */
+    public Cursor partition(int index, int count) {
+        if (index < 0 || index >= count) {
+            throw new IllegalArgumentException("Partition " + index + " of " + count);
+        }
+        return new Cursor(size * index / count, size * (index + 1) / count);
+    }
+
+    /**
+     * A cursor over all records shared by every caller: each record is given out once per corpus.
+     */
+    public Cursor shared() {
+        return new Cursor(shared, size);
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Gives out records from a range, or claims them from a counter shared with other cursors.
+     * One cursor belongs to one thread.
+     */
+    public final class Cursor {
+        private final AtomicLong claims;
+        private final long end;
+        private long next;
+        private final Record record = new Record();
+
+        private Cursor(long start, long end) {
+            this.claims = null;
+            this.next = start;
+            this.end = end;
+        }
+
+        private Cursor(AtomicLong claims, long end) {
+            this.claims = claims;
+            this.end = end;
+        }
+
+        /**
+         * Moves the cursor's flyweight to its next record; false when the records are used up.
+         */
+        public boolean next() {
+            long index = claims == null ? next++ : claims.getAndIncrement();
+            if (index >= end) {
+                return false;
+            }
+            record.moveTo(index);
+            return true;
+        }
+
+        public Record current() {
+            return record;
+        }
+    }
+
+    /**
+     * One record at a time; the char sequences it returns change when it moves.
+     */
+    public final class Record {
+        private final Chars name = new Chars(CorpusFormat.nameCapacity);
+        private final Chars phone = new Chars(CorpusFormat.phoneCapacity);
+        private long index = -1;
+        private int city;
+        private int daysAhead;
+
+        private Record() {
+        }
+
+        public Record moveTo(long index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Record " + index + " of " + size);
+            }
+            ByteBuffer segment = segments[(int) (index / segmentRecords)];
+            int offset = (int) (index % segmentRecords) * CorpusFormat.recordSize;
+            name.decode(segment, offset + CorpusFormat.nameOffset);
+            phone.decode(segment, offset + CorpusFormat.phoneOffset);
+            city = segment.getShort(offset + CorpusFormat.cityOffset) & 0xffff;
+            daysAhead = segment.getShort(offset + CorpusFormat.daysOffset) & 0xffff;
+            this.index = index;
+            return this;
+        }
+
+        public long index() {
+            return index;
+        }
+
+        public CharSequence name() {
+            return name;
+        }
+
+        public CharSequence phone() {
+            return phone;
+        }
+
+        public String city() {
+            return cities[city];
+        }
+
+        public int daysAhead() {
+            return daysAhead;
+        }
+
+        public LocalDate date(LocalDate today) {
+            return today.plusDays(daysAhead);
+        }
+
+        public RequestData toRequestData() {
+            return new RequestData(name.toString(), phone.toString());
+        }
+    }
+
+    /**
+     * A reusable char sequence decoded from a length-prefixed UTF-8 field.
+     */
+    private static final class Chars implements CharSequence {
+        private final char[] chars;
+        private int length;
+
+        Chars(int capacity) {
+            chars = new char[capacity];
+        }
+
+        void decode(ByteBuffer buffer, int offset) {
+            int bytes = buffer.get(offset) & 0xff;
+            int end = offset + 1 + bytes;
+            length = 0;
+            for (int i = offset + 1; i < end; ) {
+                int b = buffer.get(i) & 0xff;
+                if (b < 0x80) {
+                    chars[length++] = (char) b;
+                    i++;
+                } else if (b < 0xe0) {
+                    chars[length++] = (char) ((b & 0x1f) << 6 | buffer.get(i + 1) & 0x3f);
+                    i += 2;
+                } else if (b < 0xf0) {
+                    chars[length++] = (char) ((b & 0x0f) << 12 | (buffer.get(i + 1) & 0x3f) << 6
+                            | buffer.get(i + 2) & 0x3f);
+                    i += 3;
+                } else {
+                    int codePoint = (b & 0x07) << 18 | (buffer.get(i + 1) & 0x3f) << 12
+                            | (buffer.get(i + 2) & 0x3f) << 6 | buffer.get(i + 3) & 0x3f;
+                    chars[length++] = Character.highSurrogate(codePoint);
+                    chars[length++] = Character.lowSurrogate(codePoint);
+                    i += 4;
+                }
+            }
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index >= length) {
+                throw new IndexOutOfBoundsException(String.valueOf(index));
+            }
+            return chars[index];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return toString().subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return new String(chars, 0, length);
+        }
+    }
+}
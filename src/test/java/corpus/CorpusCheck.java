@@ -0,0 +1,148 @@
+package corpus;
+
+import util.CityCatalog;
+import util.DataGeneratorValidInfo;
+import util.RequestData;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Self-check of the corpus format, run by {@code ./gradlew generateCorpus} before the
+ * corpus is written: a few hundred records, multi-byte and oversized names among them,
+ * must read back as written, the same seed must give the same file, and neither
+ * {@link Corpus#partition} nor {@link Corpus#shared()} may give out a record twice.
+ */
+public final class CorpusCheck {
+    private static final int records = 500;
+    private static final long seed = 7;
+
+    private CorpusCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<RequestData> people = people();
+        List<RequestData> fitting = new ArrayList<>();
+        for (RequestData person : people) {
+            if (fits(person) && fitting.size() < records) {
+                fitting.add(person);
+            }
+        }
+        Path dir = Files.createTempDirectory("corpus-check");
+        Path first = dir.resolve("first.bin");
+        Path second = dir.resolve("second.bin");
+        try {
+            CorpusWriter.write(first, records, seed, people.iterator());
+            CorpusWriter.write(second, records, seed, people.iterator());
+            check(Arrays.equals(Files.readAllBytes(first), Files.readAllBytes(second)),
+                    "the same seed and records gave different files");
+            try (Corpus corpus = Corpus.open(first)) {
+                checkRecords(corpus, fitting);
+                for (int count : new int[]{1, 3, 7}) {
+                    checkPartitions(corpus, count);
+                }
+                checkShared(corpus, 4);
+            }
+        } finally {
+            Files.deleteIfExists(first);
+            Files.deleteIfExists(second);
+            Files.deleteIfExists(dir);
+        }
+        System.out.println("Corpus self-check passed: " + records + " records read back, partitions and shared cursor "
+                + "give out every record once");
+    }
+
+    // generated people with hand-picked multi-byte and oversized ones in between
+    private static List<RequestData> people() {
+        List<RequestData> people = new ArrayList<>();
+        DataGeneratorValidInfo.stream(new Locale("ru"), records - 10, seed).forEach(people::add);
+        String tooLong = String.join(" ", Collections.nCopies(8, "Ёлкина"));
+        people.add(1, new RequestData("Пётр Ёлкин-Щербаков", "+79012345678"));
+        people.add(2, new RequestData(tooLong, "+79012345678"));
+        people.add(3, new RequestData("Анна 𝔸 Семёнова", "+7 901 234-56-78"));
+        people.add(5, new RequestData("Ян", "+7901234567890123456789012"));
+        people.add(8, new RequestData("Жанна Д’Арк", "+79990000000"));
+        while (people.size() < records + 20) {
+            people.add(new RequestData("Ёжик Ёжиков " + people.size(), "+7900000" + (1000 + people.size())));
+        }
+        return people;
+    }
+
+    private static boolean fits(RequestData person) {
+        return person.getName().getBytes(StandardCharsets.UTF_8).length <= CorpusFormat.nameCapacity
+                && person.getTel().getBytes(StandardCharsets.UTF_8).length <= CorpusFormat.phoneCapacity;
+    }
+
+    private static void checkRecords(Corpus corpus, List<RequestData> expected) {
+        check(corpus.size() == records, "size " + corpus.size() + " instead of " + records);
+        check(corpus.seed() == seed, "seed " + corpus.seed() + " instead of " + seed);
+        CityCatalog catalog = CityCatalog.get();
+        Corpus.Record record = corpus.record();
+        for (int i = 0; i < records; i++) {
+            record.moveTo(i);
+            RequestData person = expected.get(i);
+            check(person.getName().contentEquals(record.name()), "record " + i + " name " + record.name()
+                    + " instead of " + person.getName());
+            check(person.getTel().contentEquals(record.phone()), "record " + i + " phone " + record.phone()
+                    + " instead of " + person.getTel());
+            check(catalog.contains(record.city()), "record " + i + " city " + record.city() + " isn't in the catalog");
+            check(record.daysAhead() >= 3 && record.daysAhead() <= 30, "record " + i + " is "
+                    + record.daysAhead() + " days ahead");
+        }
+    }
+
+    private static void checkPartitions(Corpus corpus, int count) {
+        AtomicIntegerArray given = new AtomicIntegerArray(records);
+        for (int i = 0; i < count; i++) {
+            Corpus.Cursor cursor = corpus.partition(i, count);
+            while (cursor.next()) {
+                given.incrementAndGet((int) cursor.current().index());
+            }
+        }
+        checkOnce(given, count + " partitions");
+    }
+
+    private static void checkShared(Corpus corpus, int threads) throws Exception {
+        AtomicIntegerArray given = new AtomicIntegerArray(records);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> {
+                    Corpus.Cursor cursor = corpus.shared();
+                    while (cursor.next()) {
+                        given.incrementAndGet((int) cursor.current().index());
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        checkOnce(given, "the shared cursor of " + threads + " threads");
+    }
+
+    private static void checkOnce(AtomicIntegerArray given, String by) {
+        for (int i = 0; i < given.length(); i++) {
+            check(given.get(i) == 1, "record " + i + " given out " + given.get(i) + " times by " + by);
+        }
+    }
+
+    private static void check(boolean condition, String failure) {
+        if (!condition) {
+            throw new IllegalStateException("Corpus self-check failed: " + failure);
+        }
+    }
+}
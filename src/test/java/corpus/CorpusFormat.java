@@ -0,0 +1,27 @@
+package corpus;
+
+/**
+ * Layout of orders.bin, all numbers big-endian.
+ * <pre>
+ * header   magic "CDOC", version u16, record size u16, record count i64, seed i64,
+ *          city count u16, cities as u16 length + UTF-8 bytes, zero padding up to
+ *          a multiple of the record size
+ * records  name length u8 + UTF-8 name (63 bytes), phone length u8 + UTF-8 phone (23 bytes),
+ *          city id u16, days ahead of the run date u16, 4 bytes padding
+ * </pre>
+ * Record {@code i} starts at {@code header size + i * record size}.
+ */
+final class CorpusFormat {
+    static final int magic = 0x43444F43;
+    static final int version = 1;
+    static final int recordSize = 96;
+    static final int nameOffset = 0;
+    static final int nameCapacity = 63;
+    static final int phoneOffset = 64;
+    static final int phoneCapacity = 23;
+    static final int cityOffset = 88;
+    static final int daysOffset = 90;
+
+    private CorpusFormat() {
+    }
+}
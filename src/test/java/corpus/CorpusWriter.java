@@ -0,0 +1,132 @@
+package corpus;
+
+import util.CityCatalog;
+import util.DataGeneratorValidInfo;
+import util.RequestData;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Generates the order corpus read by {@link Corpus}: names and phones from
+ * {@link DataGeneratorValidInfo}, cities from {@link CityCatalog} and a
+ * meeting date 3 to 30 days ahead, all from one seed, so the same seed gives
+ * the same file. Records whose name or phone doesn't fit are skipped.
+ * <p>
+ * Run with {@code ./gradlew generateCorpus -Dcorpus.records=1000000}.
+ */
+public class CorpusWriter {
+    private static final int minDaysAhead = 3;
+    private static final int maxDaysAhead = 30;
+
+    public static void main(String[] args) {
+        Path file = Paths.get(System.getProperty("corpus.file", "build/corpus/orders.bin"));
+        long records = Long.getLong("corpus.records", 1_000_000);
+        long seed = Long.getLong("corpus.seed", 1);
+        long started = System.nanoTime();
+        write(file, records, seed);
+        System.out.println(String.format(Locale.ROOT, "%,d records written to %s in %.1f s", records,
+                file.toAbsolutePath(), (System.nanoTime() - started) / 1e9));
+    }
+
+    /**
+     * Writes {@code records} records into a temporary file and moves it into place when complete.
+     */
+    public static void write(Path file, long records, long seed) {
+        write(file, records, seed, DataGeneratorValidInfo.stream(new Locale("ru"), Long.MAX_VALUE, seed).iterator());
+    }
+
+    /**
+     * Writes the first {@code records} of {@code people} that fit, with cities and dates drawn from {@code seed}.
+     */
+    static void write(Path file, long records, long seed, Iterator<RequestData> people) {
+        List<String> cities = CityCatalog.get().all();
+        SplittableRandom random = new SplittableRandom(seed);
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                writeFully(channel, header(records, seed, cities));
+                ByteBuffer batch = ByteBuffer.allocateDirect(CorpusFormat.recordSize * 4096);
+                for (long written = 0; written < records; ) {
+                    RequestData person = people.next();
+                    byte[] name = person.getName().getBytes(StandardCharsets.UTF_8);
+                    byte[] phone = person.getTel().getBytes(StandardCharsets.UTF_8);
+                    if (name.length > CorpusFormat.nameCapacity || phone.length > CorpusFormat.phoneCapacity) {
+                        continue;
+                    }
+                    int start = batch.position();
+                    batch.put(start + CorpusFormat.nameOffset, (byte) name.length);
+                    putBytes(batch, start + CorpusFormat.nameOffset + 1, name);
+                    batch.put(start + CorpusFormat.phoneOffset, (byte) phone.length);
+                    putBytes(batch, start + CorpusFormat.phoneOffset + 1, phone);
+                    batch.putShort(start + CorpusFormat.cityOffset, (short) random.nextInt(cities.size()));
+                    batch.putShort(start + CorpusFormat.daysOffset,
+                            (short) (minDaysAhead + random.nextInt(maxDaysAhead - minDaysAhead + 1)));
+                    batch.position(start + CorpusFormat.recordSize);
+                    written++;
+                    if (!batch.hasRemaining() || written == records) {
+                        batch.flip();
+                        writeFully(channel, batch);
+                        batch.clear();
+                        // records are read back from fixed offsets, unused bytes must be zero
+                        while (batch.hasRemaining()) {
+                            batch.put((byte) 0);
+                        }
+                        batch.clear();
+                    }
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't write the corpus " + file, e);
+        }
+    }
+
+    private static ByteBuffer header(long records, long seed, List<String> cities) {
+        byte[][] names = new byte[cities.size()][];
+        int size = 4 + 2 + 2 + 8 + 8 + 2;
+        for (int i = 0; i < names.length; i++) {
+            names[i] = cities.get(i).getBytes(StandardCharsets.UTF_8);
+            size += 2 + names[i].length;
+        }
+        int padded = (size + CorpusFormat.recordSize - 1) / CorpusFormat.recordSize * CorpusFormat.recordSize;
+        ByteBuffer header = ByteBuffer.allocate(padded);
+        header.putInt(CorpusFormat.magic)
+                .putShort((short) CorpusFormat.version)
+                .putShort((short) CorpusFormat.recordSize)
+                .putLong(records)
+                .putLong(seed)
+                .putShort((short) names.length);
+        for (byte[] name : names) {
+            header.putShort((short) name.length).put(name);
+        }
+        header.clear();
+        return header;
+    }
+
+    private static void putBytes(ByteBuffer buffer, int index, byte[] bytes) {
+        for (int i = 0; i < bytes.length; i++) {
+            buffer.put(index + i, bytes[i]);
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
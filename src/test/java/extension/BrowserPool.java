@@ -0,0 +1,51 @@
+package extension;
+
+import com.codeborne.selenide.WebDriverRunner;
+import com.codeborne.selenide.logevents.SelenideLogger;
+import io.qameta.allure.selenide.AllureSelenide;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import proxy.SutProxy;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounds the number of browsers used by concurrently running tests.
+ * Selenide keeps one driver per thread, so every worker owns its browser;
+ * a worker that finishes a test while more than {@code browsers.pool}
+ * browsers are alive closes its own one instead of keeping it idle.
+ * Selenide log listeners are thread-local too, so the Allure listener
+ * is registered for each test on the thread that runs it, with failure
+ * screenshots and page sources left to {@link artifact.FailureCapture}. With
+ * {@code sut.proxy.cache} set, browsers go through {@link SutProxy}.
+ */
+public class BrowserPool implements BeforeEachCallback, AfterEachCallback {
+    private static final int size = Integer.getInteger("browsers.pool", 1);
+    private static final Semaphore permits = new Semaphore(size, true);
+    private static final AtomicInteger alive = new AtomicInteger();
+    private static final ThreadLocal<Boolean> owner = ThreadLocal.withInitial(() -> false);
+
+    @Override
+    public void beforeEach(ExtensionContext context) throws InterruptedException {
+        permits.acquire();
+        SutProxy.configure();
+        if (!owner.get()) {
+            owner.set(true);
+            alive.incrementAndGet();
+        }
+        SelenideLogger.addListener("allure", new AllureSelenide().screenshots(false).savePageSource(false));
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        SelenideLogger.removeListener("allure");
+        if (alive.get() > size || !WebDriverRunner.hasWebDriverStarted()) {
+            WebDriverRunner.closeWebDriver();
+            owner.set(false);
+            alive.decrementAndGet();
+        }
+        permits.release();
+    }
+}
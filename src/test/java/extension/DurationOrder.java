@@ -0,0 +1,35 @@
+package extension;
+
+import org.junit.jupiter.api.MethodDescriptor;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.MethodOrdererContext;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+import sharding.ShardPlan;
+
+import java.util.Comparator;
+import java.util.Optional;
+
+/**
+ * Starts the slowest tests first, by their duration in earlier runs,
+ * so they don't end up as the tail of a parallel run. Tests without
+ * history keep their declaration order after them. The order only decides
+ * which tests start first, the methods still run concurrently.
+ */
+public class DurationOrder implements MethodOrderer {
+
+    @Override
+    public void orderMethods(MethodOrdererContext context) {
+        ShardPlan plan = ShardPlan.get();
+        String className = context.getTestClass().getName();
+        context.getMethodDescriptors().sort(Comparator.comparingLong(
+                (MethodDescriptor method) -> plan.methodDuration(className, method.getMethod().getName())).reversed());
+    }
+
+    /**
+     * MethodOrderer defaults to SAME_THREAD, which would run the whole class on one thread.
+     */
+    @Override
+    public Optional<ExecutionMode> getDefaultExecutionMode() {
+        return Optional.empty();
+    }
+}
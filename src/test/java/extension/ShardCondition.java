@@ -0,0 +1,38 @@
+package extension;
+
+import fixture.StreamingCsvSource;
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import sharding.ShardPlan;
+
+/**
+ * Runs only the tests and parameterized rows that {@link ShardPlan} gives to this fork.
+ */
+public class ShardCondition implements ExecutionCondition {
+
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        ShardPlan plan = ShardPlan.get();
+        if (!plan.isSharded() || !context.getTestMethod().isPresent() || isTemplate(context)) {
+            return ConditionEvaluationResult.enabled("not sharded");
+        }
+        if (context.getRequiredTestMethod().isAnnotationPresent(StreamingCsvSource.class)) {
+            return ConditionEvaluationResult.enabled("rows are sliced by the fixture source");
+        }
+        String key = context.getRequiredTestClass().getName() + "." + context.getRequiredTestMethod().getName()
+                + "|" + context.getDisplayName();
+        int shard = plan.shardOf(key);
+        return shard == plan.index()
+                ? ConditionEvaluationResult.enabled("shard " + shard + " of " + plan.count())
+                : ConditionEvaluationResult.disabled("runs in shard " + shard + " of " + plan.count());
+    }
+
+    /**
+     * A parameterized test method itself, as opposed to one of its invocations.
+     */
+    private static boolean isTemplate(ExtensionContext context) {
+        String id = context.getUniqueId();
+        return id.contains("[test-template:") && !id.contains("[test-template-invocation:");
+    }
+}
@@ -0,0 +1,21 @@
+package extension;
+
+import org.junit.jupiter.api.extension.BeforeAllCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import stub.Sut;
+
+/**
+ * Makes sure the app under test is up before a test class runs and stops
+ * the in-process stand-in, if one was started, when the test run ends.
+ */
+public class SutExtension implements BeforeAllCallback {
+
+    @Override
+    public void beforeAll(ExtensionContext context) {
+        context.getRoot().getStore(ExtensionContext.Namespace.GLOBAL)
+                .getOrComputeIfAbsent(SutExtension.class, key -> {
+                    Sut.url();
+                    return (ExtensionContext.Store.CloseableResource) Sut::stop;
+                });
+    }
+}
@@ -0,0 +1,36 @@
+package fixture;
+
+import oracle.InputFuzzer;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ArgumentsProvider;
+import org.junit.jupiter.params.support.AnnotationConsumer;
+
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Streams the invalid representatives of {@link FuzzedInputSource} fields,
+ * grouped by field and ordered by verdict so runs line up with each other.
+ * Each row is (field, description, input, expected error text); the
+ * description doesn't change from day to day, the input is today's value.
+ */
+public class FuzzedInputProvider implements ArgumentsProvider, AnnotationConsumer<FuzzedInputSource> {
+    private FuzzedInputSource source;
+
+    @Override
+    public void accept(FuzzedInputSource source) {
+        this.source = source;
+    }
+
+    @Override
+    public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
+        return Stream.of(source.fields())
+                .flatMap(field -> InputFuzzer.run(field, source.candidates(), source.seed()).getInvalid().stream()
+                        .sorted(Comparator.comparing(InputFuzzer.Representative::getVerdict)
+                                .thenComparingInt(InputFuzzer.Representative::getDetail)
+                                .thenComparingInt(representative -> representative.getInput().length())))
+                .map(representative -> Arguments.of(representative.getField().getKey(),
+                        representative.getDescription(), representative.getInput(), representative.getMessage()));
+    }
+}
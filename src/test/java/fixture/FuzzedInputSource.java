@@ -0,0 +1,33 @@
+package fixture;
+
+import oracle.InputFuzzer;
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Invalid values found by {@link InputFuzzer}, one per equivalence class,
+ * as (field, description, input, expected error text) arguments. Fuzzing runs when the
+ * arguments are requested and takes well under a second at the default size.
+ */
+@Target({ElementType.ANNOTATION_TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ArgumentsSource(FuzzedInputProvider.class)
+public @interface FuzzedInputSource {
+
+    InputFuzzer.Field[] fields() default {
+            InputFuzzer.Field.CITY, InputFuzzer.Field.DATE, InputFuzzer.Field.NAME, InputFuzzer.Field.PHONE
+    };
+
+    /**
+     * Candidates generated per field.
+     */
+    long candidates() default 200_000;
+
+    long seed() default 1;
+}
@@ -0,0 +1,96 @@
+package fixture;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * UTF-8 lines of a file read through a sliding memory-mapped window. Only the
+ * window and the current line are held in memory, whatever the file size.
+ */
+final class MappedLines implements Iterator<String>, AutoCloseable {
+    private static final long window = 64L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private MappedByteBuffer buffer;
+    private long bufferStart;
+    private long position;
+    private byte[] line = new byte[256];
+    private String next;
+
+    MappedLines(Path file) {
+        try {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.size = channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't open fixture " + file, e);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && position < size) {
+            next = readLine();
+        }
+        return next != null;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String current = next;
+        next = null;
+        return current;
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String readLine() {
+        int length = 0;
+        while (position < size) {
+            if (buffer == null || position >= bufferStart + buffer.limit()) {
+                map(position);
+            }
+            byte b = buffer.get((int) (position - bufferStart));
+            position++;
+            if (b == '\n') {
+                break;
+            }
+            if (length == line.length) {
+                byte[] bigger = new byte[line.length * 2];
+                System.arraycopy(line, 0, bigger, 0, length);
+                line = bigger;
+            }
+            line[length++] = b;
+        }
+        if (length > 0 && line[length - 1] == '\r') {
+            length--;
+        }
+        return new String(line, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private void map(long start) {
+        try {
+            bufferStart = start;
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(window, size - start));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
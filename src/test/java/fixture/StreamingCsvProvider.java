@@ -0,0 +1,143 @@
+package fixture;
+
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.ArgumentsProvider;
+import org.junit.jupiter.params.support.AnnotationConsumer;
+import sharding.ShardPlan;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams the rows of {@link StreamingCsvSource} fixtures as arguments.
+ * Blank lines are skipped and unquoted empty values become null, as with {@code @CsvFileSource}.
+ */
+public class StreamingCsvProvider implements ArgumentsProvider, AnnotationConsumer<StreamingCsvSource> {
+    private StreamingCsvSource source;
+
+    @Override
+    public void accept(StreamingCsvSource source) {
+        this.source = source;
+    }
+
+    @Override
+    public Stream<? extends Arguments> provideArguments(ExtensionContext context) {
+        Stream<Path> files = Stream.of(source.files()).map(Paths::get);
+        Stream<Stream<String>> resources = Stream.of(source.resources()).map(this::resourceLines);
+        return Stream.concat(files.map(StreamingCsvProvider::fileLines), resources)
+                .flatMap(lines -> rows(lines.skip(source.numLinesToSkip()).filter(line -> !line.trim().isEmpty())))
+                .map(line -> Arguments.of(parse(line, source.delimiter())));
+    }
+
+    /**
+     * Keeps the sampled rows of this fork's slice, numbering rows from 0 after the skipped lines.
+     */
+    private Stream<String> rows(Stream<String> lines) {
+        ShardPlan plan = ShardPlan.get();
+        double sample = source.sample();
+        long seed = source.seed();
+        long[] row = {0};
+        return lines.filter(line -> {
+            long index = row[0]++;
+            if (sample < 1.0 && uniform(seed, index) >= sample) {
+                return false;
+            }
+            return !plan.isSharded() || index % plan.count() == plan.index();
+        });
+    }
+
+    private Stream<String> resourceLines(String resource) {
+        URL url = getClass().getResource(resource);
+        if (url == null) {
+            throw new IllegalArgumentException("No fixture " + resource);
+        }
+        if ("file".equals(url.getProtocol())) {
+            try {
+                return fileLines(Paths.get(url.toURI()));
+            } catch (URISyntaxException e) {
+                throw new IllegalArgumentException("Bad fixture url " + url, e);
+            }
+        }
+        try {
+            InputStream in = url.openStream();
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            return reader.lines().onClose(() -> {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't read fixture " + resource, e);
+        }
+    }
+
+    private static Stream<String> fileLines(Path file) {
+        MappedLines lines = new MappedLines(file);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(lines,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(lines::close);
+    }
+
+    /**
+     * A value in [0, 1) that depends only on the seed and the row number (SplitMix64 finalizer).
+     */
+    private static double uniform(long seed, long index) {
+        long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (z >>> 11) * 0x1.0p-53;
+    }
+
+    static Object[] parse(String line, char delimiter) {
+        List<Object> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == delimiter) {
+                values.add(valueOf(value, wasQuoted));
+                value.setLength(0);
+                wasQuoted = false;
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(valueOf(value, wasQuoted));
+        return values.toArray();
+    }
+
+    private static String valueOf(StringBuilder value, boolean quoted) {
+        String text = quoted ? value.toString() : value.toString().trim();
+        return text.isEmpty() && !quoted ? null : text;
+    }
+}
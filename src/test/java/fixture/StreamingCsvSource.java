@@ -0,0 +1,43 @@
+package fixture;
+
+import org.junit.jupiter.params.provider.ArgumentsSource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Like {@code @CsvFileSource}, but rows are read lazily from memory-mapped
+ * files one invocation at a time, so fixtures of any size use the same heap.
+ * <p>
+ * Rows can be sampled: {@link #sample()} is the share of rows kept, picked
+ * by a hash of the row number and {@link #seed()}, so the same rows come
+ * back on every run. When the suite is sharded ({@code shard.count} above 1)
+ * every fork gets its own slice of the rows.
+ */
+@Target({ElementType.ANNOTATION_TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ArgumentsSource(StreamingCsvProvider.class)
+public @interface StreamingCsvSource {
+
+    /**
+     * Classpath resources, e.g. "/invalidnames.csv".
+     */
+    String[] resources() default {};
+
+    /**
+     * Files relative to the working directory, e.g. generated fixtures under build/.
+     */
+    String[] files() default {};
+
+    int numLinesToSkip() default 0;
+
+    char delimiter() default ',';
+
+    double sample() default 1.0;
+
+    long seed() default 0;
+}
@@ -0,0 +1,337 @@
+package load;
+
+import api.OrderApiClient;
+import order.Order;
+import order.OrderChannel;
+import order.OrderOutcome;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import stub.CardDeliveryStub;
+import util.CityGenerator;
+import util.DataGeneratorValidInfo;
+import util.RequestData;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Many clients scheduling and rescheduling the meeting of one customer at once.
+ * <p>
+ * Every round takes a new customer (name and phone) and starts
+ * {@code contention.threads} threads together; each sends
+ * {@code contention.requests} orders for one of {@code contention.dates}
+ * dates and confirms rescheduling whenever the app asks for it. Afterwards
+ * the booked date is found by resubmitting each date without confirming:
+ * only the booked one is answered with "Встреча успешно запланирована на …",
+ * the others ask for rescheduling, so the probes don't change anything.
+ * <p>
+ * A round is inconsistent when
+ * <ul>
+ * <li>not exactly one date answers the probes as booked;</li>
+ * <li>an order, probes included, saw a booked date that no update can have
+ * written: every candidate update was replaced by an acknowledged update of
+ * another date before the order started, i.e. an update was lost;</li>
+ * <li>clients were told that different dates were booked first, without a
+ * confirmed rescheduling to explain it.</li>
+ * </ul>
+ * Orders go through {@link OrderApiClient}, whose contract only the stand-in
+ * serves, so the harness checks the stand-in's booking store, not the app.
+ * Run with {@code ./gradlew contentionTest}, which starts the stand-in in
+ * process; {@code -Dcontention.url} may point at a stand-in started
+ * elsewhere and is refused when it doesn't answer in that contract.
+ */
+public class ContentionHarness {
+    private static final DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern("ddMMyyyy");
+
+    enum Kind {
+        SCHEDULE, RESCHEDULE, PROBE
+    }
+
+    private final OrderChannel channel;
+    private final Supplier<RequestData> customers;
+    private final int threads;
+    private final int requests;
+    private final List<String> dates = new ArrayList<>();
+    private final Map<Kind, Histogram> latency = new EnumMap<>(Kind.class);
+    private final Map<OrderOutcome.Status, LongAdder> statuses = new EnumMap<>(OrderOutcome.Status.class);
+    private final List<String> problems = Collections.synchronizedList(new ArrayList<>());
+    private int rounds;
+
+    public ContentionHarness(OrderChannel channel, Supplier<RequestData> customers, int threads, int requests,
+                             int dates) {
+        this.channel = channel;
+        this.customers = customers;
+        this.threads = threads;
+        this.requests = requests;
+        for (int i = 0; i < dates; i++) {
+            this.dates.add(LocalDate.now().plusDays(3 + i).format(dateFormat));
+        }
+        for (Kind kind : Kind.values()) {
+            latency.put(kind, new ConcurrentHistogram(3));
+        }
+        for (OrderOutcome.Status status : OrderOutcome.Status.values()) {
+            statuses.put(status, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        CardDeliveryStub stub = null;
+        String url = System.getProperty("contention.url");
+        if (url == null || url.isEmpty()) {
+            stub = CardDeliveryStub.start(0);
+            url = stub.url();
+        }
+        OrderApiClient client = new OrderApiClient(url).requireStandIn(new Order(CityGenerator.getRandomCity(),
+                LocalDate.now().plusDays(3).format(dateFormat), DataGeneratorValidInfo.generateUsersData(new Locale("ru"))));
+        ContentionHarness harness = new ContentionHarness(client,
+                () -> DataGeneratorValidInfo.generateUsersData(new Locale("ru")),
+                Integer.getInteger("contention.threads", 16),
+                Integer.getInteger("contention.requests", 20),
+                Integer.getInteger("contention.dates", 4));
+        harness.run(Integer.getInteger("contention.rounds", 20));
+        if (stub != null) {
+            stub.stop();
+        }
+        harness.report(System.out);
+        Path dir = Paths.get(System.getProperty("contention.report.dir", "build/reports/contention"));
+        harness.write(dir);
+        System.out.println("Report written to " + dir.toAbsolutePath());
+        System.exit(harness.problems().isEmpty() ? 0 : 1);
+    }
+
+    public void run(int rounds) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int i = 0; i < rounds; i++) {
+                round(pool, i);
+                this.rounds++;
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    public List<String> problems() {
+        return problems;
+    }
+
+    private void round(ExecutorService pool, int round) throws InterruptedException {
+        RequestData customer = customers.get();
+        String city = CityGenerator.getRandomCity();
+        List<Request> log = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int i = 0; i < threads; i++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                    for (int r = 0; r < requests; r++) {
+                        Order order = new Order(city, dates.get(ThreadLocalRandom.current().nextInt(dates.size())),
+                                customer);
+                        Request scheduled = send(Kind.SCHEDULE, order);
+                        log.add(scheduled);
+                        if (scheduled.status == OrderOutcome.Status.REPLAN_REQUIRED) {
+                            log.add(send(Kind.RESCHEDULE, order));
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        if (!done.await(10, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Round " + round + " didn't finish in 10 minutes");
+        }
+        check(round, log, booked(city, customer, log));
+    }
+
+    private Request send(Kind kind, Order order) {
+        long started = System.nanoTime();
+        OrderOutcome.Status status;
+        try {
+            status = (kind == Kind.RESCHEDULE ? channel.replan(order) : channel.submit(order)).getStatus();
+        } catch (RuntimeException e) {
+            status = OrderOutcome.Status.NO_RESPONSE;
+        }
+        long finished = System.nanoTime();
+        latency.get(kind).recordValue(TimeUnit.NANOSECONDS.toMicros(finished - started));
+        statuses.get(status).increment();
+        return new Request(kind, order.getDate(), started, finished, status);
+    }
+
+    /**
+     * The dates that answer a plain resubmission as booked; exactly one is expected.
+     */
+    private List<String> booked(String city, RequestData customer, List<Request> log) {
+        List<String> booked = new ArrayList<>();
+        for (String date : dates) {
+            Request probe = send(Kind.PROBE, new Order(city, date, customer));
+            log.add(probe);
+            if (probe.status == OrderOutcome.Status.SCHEDULED) {
+                booked.add(date);
+            }
+        }
+        return booked;
+    }
+
+    private void check(int round, List<Request> log, List<String> booked) {
+        String prefix = "round " + round + ": ";
+        if (booked.size() != 1) {
+            problems.add(prefix + booked.size() + " dates answer as booked " + booked);
+        }
+        List<Request> writes = new ArrayList<>();
+        List<Request> acknowledgedWrites = new ArrayList<>();
+        for (Request request : log) {
+            if (request.isWrite(log)) {
+                writes.add(request);
+                if (request.status == OrderOutcome.Status.SCHEDULED) {
+                    acknowledgedWrites.add(request);
+                }
+            }
+        }
+        int unexplained = 0;
+        Request first = null;
+        for (Request read : log) {
+            if (read.kind != Kind.RESCHEDULE && !explained(read, writes, acknowledgedWrites)) {
+                unexplained++;
+                first = first == null ? read : first;
+            }
+        }
+        if (first != null) {
+            problems.add(prefix + "lost update: " + unexplained + " answers contradict every acknowledged update,"
+                    + " e.g. " + first.kind + " of " + first.date + " answered " + first.status);
+        }
+        Set<String> firstBookings = new LinkedHashSet<>();
+        Set<String> rescheduled = new LinkedHashSet<>();
+        for (Request request : log) {
+            if (request.kind != Kind.PROBE && request.status == OrderOutcome.Status.SCHEDULED) {
+                (request.kind == Kind.RESCHEDULE ? rescheduled : firstBookings).add(request.date);
+            }
+        }
+        firstBookings.removeAll(rescheduled);
+        if (firstBookings.size() > 1) {
+            problems.add(prefix + "conflicting bookings: " + firstBookings
+                    + " were all acknowledged without a confirmed rescheduling");
+        }
+    }
+
+    /**
+     * Whether the booked date a plain order saw (its own date when scheduled, another one when asked to
+     * reschedule) can have been written by an update that started before the order finished and wasn't
+     * replaced by an acknowledged update of another date before the order started.
+     */
+    private static boolean explained(Request read, List<Request> writes, List<Request> acknowledgedWrites) {
+        if (read.status != OrderOutcome.Status.SCHEDULED && read.status != OrderOutcome.Status.REPLAN_REQUIRED) {
+            return true;
+        }
+        boolean scheduled = read.status == OrderOutcome.Status.SCHEDULED;
+        for (Request write : writes) {
+            if (write.started >= read.finished || write.date.equals(read.date) != scheduled) {
+                continue;
+            }
+            boolean replaced = false;
+            for (Request later : acknowledgedWrites) {
+                if (!later.date.equals(write.date) && later.started > write.finished && later.finished < read.started) {
+                    replaced = true;
+                    break;
+                }
+            }
+            if (!replaced) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void report(PrintStream out) {
+        out.printf(Locale.ROOT, "%d rounds, %d threads x %d orders per round on %d dates%n", rounds, threads,
+                requests, dates.size());
+        out.printf(Locale.ROOT, "%-12s %8s %10s %10s %10s %10s %10s%n", "request", "count", "p50 ms", "p90 ms",
+                "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<Kind, Histogram> entry : latency.entrySet()) {
+            Histogram histogram = entry.getValue();
+            out.printf(Locale.ROOT, "%-12s %8d %10.1f %10.1f %10.1f %10.1f %10.1f%n", entry.getKey(),
+                    histogram.getTotalCount(),
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(90) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getValueAtPercentile(99.9) / 1000.0,
+                    histogram.getMaxValue() / 1000.0);
+        }
+        StringBuilder answers = new StringBuilder("answers:");
+        statuses.forEach((status, count) -> answers.append(' ').append(status).append('=').append(count.sum()));
+        out.println(answers);
+        if (problems.isEmpty()) {
+            out.println("No lost or conflicting updates");
+        } else {
+            problems.forEach(problem -> out.println("FAILED " + problem));
+        }
+    }
+
+    public void write(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        try (PrintStream out = new PrintStream(new FileOutputStream(dir.resolve("contention-report.txt").toFile()),
+                true, "UTF-8")) {
+            report(out);
+        }
+    }
+
+    private static final class Request {
+        private final Kind kind;
+        private final String date;
+        private final long started;
+        private final long finished;
+        private final OrderOutcome.Status status;
+
+        Request(Kind kind, String date, long started, long finished, OrderOutcome.Status status) {
+            this.kind = kind;
+            this.date = date;
+            this.started = started;
+            this.finished = finished;
+            this.status = status;
+        }
+
+        /**
+         * Confirmed reschedulings that weren't refused, and plain orders that were
+         * acknowledged while nothing was acknowledged yet, can have set the date.
+         */
+        boolean isWrite(List<Request> log) {
+            if (kind == Kind.RESCHEDULE) {
+                return status == OrderOutcome.Status.SCHEDULED || status == OrderOutcome.Status.NO_RESPONSE;
+            }
+            if (kind == Kind.PROBE || status != OrderOutcome.Status.SCHEDULED) {
+                return false;
+            }
+            for (Request other : log) {
+                if (other.status == OrderOutcome.Status.SCHEDULED && other.finished < started) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package load;
+
+import api.OrderApiClient;
+import corpus.Corpus;
+import order.Order;
+import order.OrderChannel;
+import order.OrderOutcome;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import stub.CardDeliveryStub;
+import util.CityGenerator;
+import util.DataGeneratorValidInfo;
+import util.RequestData;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load against the order endpoint of the stand-in.
+ * <p>
+ * Orders are started on a fixed schedule ({@code load.rate} per second for
+ * {@code load.duration} seconds) no matter how fast the app answers, and
+ * latency is measured from the scheduled start, so a slow app shows up as
+ * queueing time instead of a lower request rate (no coordinated omission).
+ * A share of the clients ({@code load.rescheduleShare}) schedules a meeting
+ * and then moves it to another date. Every order is built before the
+ * schedule starts, so the measured time is the app's; with
+ * {@code load.corpus} pointing at a corpus from {@code ./gradlew generateCorpus},
+ * customers are read from it, each record once, instead of being generated.
+ * <p>
+ * Orders go through {@link OrderApiClient}, whose contract only the stand-in
+ * serves. Run with {@code ./gradlew loadTest}, which starts the stand-in in
+ * process; {@code -Dload.url} may point at a stand-in started elsewhere and
+ * is refused when it doesn't answer in that contract.
+ */
+public class OrderLoadGenerator {
+    private static final DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern("ddMMyyyy");
+
+    enum Scenario {
+        SCHEDULE, RESCHEDULE
+    }
+
+    private final OrderChannel channel;
+    private final double rate;
+    private final long durationSeconds;
+    private final int workers;
+    private final double rescheduleShare;
+    private final Map<Scenario, Stats> stats = new EnumMap<>(Scenario.class);
+    private Corpus corpus;
+    private int unfinished;
+
+    public OrderLoadGenerator(OrderChannel channel, double rate, long durationSeconds, int workers,
+                              double rescheduleShare) {
+        this.channel = channel;
+        this.rate = rate;
+        this.durationSeconds = durationSeconds;
+        this.workers = workers;
+        this.rescheduleShare = rescheduleShare;
+        for (Scenario scenario : Scenario.values()) {
+            stats.put(scenario, new Stats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        CardDeliveryStub stub = null;
+        String url = System.getProperty("load.url");
+        if (url == null || url.isEmpty()) {
+            stub = CardDeliveryStub.start(0);
+            url = stub.url();
+        }
+        OrderApiClient client = new OrderApiClient(url).requireStandIn(new Order(CityGenerator.getRandomCity(),
+                LocalDate.now().plusDays(3).format(dateFormat), DataGeneratorValidInfo.generateUsersData(new Locale("ru"))));
+        OrderLoadGenerator generator = new OrderLoadGenerator(client,
+                Double.parseDouble(System.getProperty("load.rate", "50")),
+                Long.getLong("load.duration", 60),
+                Integer.getInteger("load.workers", 200),
+                Double.parseDouble(System.getProperty("load.rescheduleShare", "0.2")));
+        String corpus = System.getProperty("load.corpus", "");
+        if (!corpus.isEmpty()) {
+            generator.useCorpus(Corpus.open(Paths.get(corpus)));
+        }
+        long elapsed = generator.run();
+        if (stub != null) {
+            stub.stop();
+        }
+        generator.report(System.out, elapsed);
+        Path dir = Paths.get(System.getProperty("load.report.dir", "build/reports/load"));
+        generator.write(dir, elapsed);
+        System.out.println("Report written to " + dir.toAbsolutePath());
+        System.exit(generator.isComplete() ? 0 : 1);
+    }
+
+    /**
+     * Takes customers from the corpus while it lasts, generated ones after that.
+     */
+    public void useCorpus(Corpus corpus) {
+        this.corpus = corpus;
+    }
+
+    /**
+     * Runs the load and returns the time from the first scheduled order to the last answer, in nanoseconds.
+     */
+    public long run() throws InterruptedException {
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+        long prepareStarted = System.nanoTime();
+        Planned[] plan = plan((int) ((durationNanos + interval - 1) / interval));
+        System.out.printf(Locale.ROOT, "Prepared %d orders in %.1f s%n", plan.length,
+                (System.nanoTime() - prepareStarted) / 1e9);
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        long start = System.nanoTime();
+        for (int i = 0; i < plan.length; i++) {
+            long intended = start + i * interval;
+            long wait = intended - System.nanoTime();
+            while (wait > 0) {
+                LockSupport.parkNanos(wait);
+                wait = intended - System.nanoTime();
+            }
+            Planned planned = plan[i];
+            pool.execute(() -> execute(planned, intended));
+        }
+        pool.shutdown();
+        if (!pool.awaitTermination(10, TimeUnit.MINUTES)) {
+            unfinished = pool.shutdownNow().size();
+            System.err.println("Load run did not finish within 10 minutes after the last scheduled order, "
+                    + unfinished + " orders never started");
+        }
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * False when the run timed out with orders still queued.
+     */
+    public boolean isComplete() {
+        return unfinished == 0;
+    }
+
+    private Planned[] plan(int count) {
+        Corpus.Cursor cursor = corpus == null ? null : corpus.shared();
+        LocalDate today = LocalDate.now();
+        Planned[] plan = new Planned[count];
+        for (int i = 0; i < count; i++) {
+            Order order = newOrder(cursor, today);
+            if (ThreadLocalRandom.current().nextDouble() < rescheduleShare) {
+                // corpus dates reach 30 days ahead, so the new date is counted from the order's own one
+                Order moved = order.withDate(LocalDate.parse(order.getDate(), dateFormat)
+                        .plusDays(1 + ThreadLocalRandom.current().nextInt(10)).format(dateFormat));
+                plan[i] = new Planned(Scenario.RESCHEDULE, order, moved);
+            } else {
+                plan[i] = new Planned(Scenario.SCHEDULE, order, null);
+            }
+        }
+        return plan;
+    }
+
+    private void execute(Planned planned, long intended) {
+        Stats scenarioStats = stats.get(planned.scenario);
+        boolean ok;
+        try {
+            ok = planned.scenario == Scenario.SCHEDULE ? schedule(planned.order) : reschedule(planned.order, planned.moved);
+        } catch (RuntimeException e) {
+            ok = false;
+        }
+        scenarioStats.latency.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended));
+        (ok ? scenarioStats.ok : scenarioStats.errors).increment();
+    }
+
+    private boolean schedule(Order order) {
+        return channel.submit(order).getStatus() == OrderOutcome.Status.SCHEDULED;
+    }
+
+    private boolean reschedule(Order order, Order moved) {
+        if (channel.submit(order).getStatus() != OrderOutcome.Status.SCHEDULED) {
+            return false;
+        }
+        if (channel.submit(moved).getStatus() != OrderOutcome.Status.REPLAN_REQUIRED) {
+            return false;
+        }
+        return channel.replan(moved).getStatus() == OrderOutcome.Status.SCHEDULED;
+    }
+
+    private static Order newOrder(Corpus.Cursor cursor, LocalDate today) {
+        if (cursor != null && cursor.next()) {
+            Corpus.Record record = cursor.current();
+            return new Order(record.city(), record.date(today).format(dateFormat), record.toRequestData());
+        }
+        RequestData requestData = DataGeneratorValidInfo.generateUsersData(new Locale("ru"));
+        String date = today.plusDays(3 + ThreadLocalRandom.current().nextInt(14)).format(dateFormat);
+        return new Order(CityGenerator.getRandomCity(), date, requestData);
+    }
+
+    public void report(PrintStream out, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        out.printf(Locale.ROOT, "%-12s %8s %8s %10s %8s %10s %10s %10s %10s %10s%n", "scenario", "count", "errors",
+                "ops/s", "error%", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<Scenario, Stats> entry : stats.entrySet()) {
+            Histogram latency = entry.getValue().latency;
+            long ok = entry.getValue().ok.sum();
+            long errors = entry.getValue().errors.sum();
+            long count = ok + errors;
+            out.printf(Locale.ROOT, "%-12s %8d %8d %10.1f %8.2f %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    entry.getKey(), count, errors, count / seconds, count == 0 ? 0 : 100.0 * errors / count,
+                    latency.getValueAtPercentile(50) / 1000.0,
+                    latency.getValueAtPercentile(90) / 1000.0,
+                    latency.getValueAtPercentile(99) / 1000.0,
+                    latency.getValueAtPercentile(99.9) / 1000.0,
+                    latency.getMaxValue() / 1000.0);
+        }
+    }
+
+    /**
+     * Writes the summary and an HdrHistogram percentile distribution (.hgrm) per scenario.
+     */
+    public void write(Path dir, long elapsedNanos) throws IOException {
+        Files.createDirectories(dir);
+        try (PrintStream out = new PrintStream(new FileOutputStream(dir.resolve("load-report.txt").toFile()), true, "UTF-8")) {
+            report(out, elapsedNanos);
+        }
+        for (Map.Entry<Scenario, Stats> entry : stats.entrySet()) {
+            Path file = dir.resolve(entry.getKey().name().toLowerCase(Locale.ROOT) + ".hgrm");
+            try (PrintStream out = new PrintStream(new FileOutputStream(file.toFile()), true, "UTF-8")) {
+                entry.getValue().latency.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    private static final class Planned {
+        private final Scenario scenario;
+        private final Order order;
+        private final Order moved;
+
+        Planned(Scenario scenario, Order order, Order moved) {
+            this.scenario = scenario;
+            this.order = order;
+            this.moved = moved;
+        }
+    }
+
+    private static final class Stats {
+        private final Histogram latency = new ConcurrentHistogram(3);
+        private final LongAdder ok = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+    }
+}
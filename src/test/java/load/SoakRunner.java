@@ -0,0 +1,480 @@
+package load;
+
+import com.codeborne.selenide.Selenide;
+import com.codeborne.selenide.WebDriverRunner;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.junit.platform.engine.TestExecutionResult;
+import org.junit.platform.engine.support.descriptor.MethodSource;
+import org.junit.platform.launcher.Launcher;
+import org.junit.platform.launcher.LauncherDiscoveryRequest;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+import org.junit.platform.launcher.core.LauncherConfig;
+import org.junit.platform.launcher.core.LauncherFactory;
+import org.openqa.selenium.WebDriverException;
+import stub.CardDeliveryStub;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectClass;
+import static org.junit.platform.engine.discovery.DiscoverySelectors.selectUniqueId;
+import static org.junit.platform.launcher.core.LauncherDiscoveryRequestBuilder.request;
+
+/**
+ * Endurance run of the existing scenarios.
+ * <p>
+ * {@code soak.workers} threads keep picking random test methods of
+ * {@code soak.class} (filtered by the {@code soak.include} regex) and run
+ * them through the JUnit launcher for {@code soak.duration} seconds. Every
+ * {@code soak.interval} seconds a row is added to the time series: test
+ * latency percentiles, failures, the browsers' JS heap, resident memory of
+ * chromedriver and the browsers started by this JVM (from /proc, Linux only),
+ * the JVM's old generation after GC and GC activity.
+ * <p>
+ * The run fails when the p95 latency of the last third of the intervals is
+ * more than {@code soak.maxDrift} times that of the first third, when a
+ * memory series grows by more than {@code soak.maxGrowth} (0.5 = 50%) the
+ * same way, or when more than {@code soak.maxFailureRate} of the tests fail.
+ * The first interval is a warm-up and is never compared, so drift and
+ * growth are only checked from four intervals on.
+ * <p>
+ * Run with {@code ./gradlew soakTest -Dsoak.duration=7200}.
+ */
+public class SoakRunner {
+    private static final String[] columns = {"elapsed_s", "tests", "failures", "p50_ms", "p95_ms", "p99_ms", "max_ms",
+            "js_heap_mb", "driver_rss_mb", "browser_rss_mb", "jvm_old_gen_mb", "gc_count", "gc_time_ms"};
+
+    private final String testClass;
+    private final Pattern include;
+    private final int workers;
+    private final long durationSeconds;
+    private final long intervalSeconds;
+    private final long seed;
+    private final Recorder latency = new Recorder(3);
+    private final LongAdder tests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final AtomicLongArray jsHeap;
+    private final List<Interval> intervals = new ArrayList<>();
+
+    public SoakRunner(String testClass, Pattern include, int workers, long durationSeconds, long intervalSeconds,
+                      long seed) {
+        this.testClass = testClass;
+        this.include = include;
+        this.workers = workers;
+        this.durationSeconds = durationSeconds;
+        this.intervalSeconds = intervalSeconds;
+        this.seed = seed;
+        this.jsHeap = new AtomicLongArray(workers);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int workers = Integer.getInteger("soak.workers", 1);
+        if (System.getProperty("browsers.pool") == null) {
+            System.setProperty("browsers.pool", String.valueOf(workers));
+        }
+        // the test class keeps the app's address for the whole JVM, so the stand-in must outlive single runs
+        CardDeliveryStub stub = null;
+        String url = System.getProperty("sut.url");
+        if (url == null || url.isEmpty()) {
+            stub = CardDeliveryStub.start(0);
+            System.setProperty("sut.url", stub.url());
+        }
+        SoakRunner runner = new SoakRunner(System.getProperty("soak.class", "CardDeliveryOrderTests"),
+                Pattern.compile(System.getProperty("soak.include", ".*")), workers,
+                Long.getLong("soak.duration", 3600), Long.getLong("soak.interval", 60), Long.getLong("soak.seed", 1));
+        runner.run();
+        if (stub != null) {
+            stub.stop();
+        }
+        List<String> problems = runner.check(Double.parseDouble(System.getProperty("soak.maxDrift", "1.5")),
+                Double.parseDouble(System.getProperty("soak.maxGrowth", "0.5")),
+                Double.parseDouble(System.getProperty("soak.maxFailureRate", "0")));
+        Path dir = Paths.get(System.getProperty("soak.report.dir", "build/reports/soak"));
+        runner.write(dir, problems);
+        runner.report(System.out, problems);
+        System.out.println("Report written to " + dir.toAbsolutePath());
+        System.exit(problems.isEmpty() ? 0 : 1);
+    }
+
+    public void run() throws InterruptedException {
+        List<String> scenarios = scenarios();
+        if (scenarios.isEmpty()) {
+            throw new IllegalStateException("No tests of " + testClass + " match " + include.pattern());
+        }
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            int worker = i;
+            Thread thread = new Thread(() -> work(worker, scenarios, end), "soak-worker-" + i);
+            thread.start();
+            threads.add(thread);
+        }
+        Sample previous = Sample.take();
+        for (long next = start + TimeUnit.SECONDS.toNanos(intervalSeconds); ; next += TimeUnit.SECONDS.toNanos(intervalSeconds)) {
+            boolean last = next >= end;
+            if (last) {
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+            } else {
+                TimeUnit.NANOSECONDS.sleep(next - System.nanoTime());
+            }
+            Sample current = Sample.take();
+            intervals.add(interval(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start), previous, current));
+            previous = current;
+            if (last) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Unique ids of the test methods to pick from, parameterized ones run with all their rows.
+     */
+    private List<String> scenarios() {
+        Launcher launcher = newLauncher();
+        TestPlan plan = launcher.discover(request().selectors(selectClass(testClass)).build());
+        List<String> scenarios = new ArrayList<>();
+        Deque<TestIdentifier> pending = new ArrayDeque<>(plan.getRoots());
+        while (!pending.isEmpty()) {
+            TestIdentifier identifier = pending.poll();
+            if (identifier.getSource().filter(MethodSource.class::isInstance).isPresent()) {
+                MethodSource method = (MethodSource) identifier.getSource().get();
+                if (include.matcher(method.getMethodName()).find()) {
+                    scenarios.add(identifier.getUniqueId());
+                }
+            } else {
+                pending.addAll(plan.getChildren(identifier));
+            }
+        }
+        return scenarios;
+    }
+
+    private void work(int worker, List<String> scenarios, long end) {
+        Launcher launcher = newLauncher();
+        Random random = new Random(seed + worker);
+        TestExecutionListener listener = new ScenarioListener();
+        while (System.nanoTime() < end) {
+            LauncherDiscoveryRequest scenario = request()
+                    .selectors(selectUniqueId(scenarios.get(random.nextInt(scenarios.size()))))
+                    .build();
+            launcher.execute(scenario, listener);
+            jsHeap.set(worker, jsHeapBytes());
+        }
+        if (WebDriverRunner.hasWebDriverStarted()) {
+            WebDriverRunner.closeWebDriver();
+        }
+        jsHeap.set(worker, -1);
+    }
+
+    /**
+     * A launcher without the run-wide listeners of the suite, so single runs don't write reports.
+     */
+    private static Launcher newLauncher() {
+        return LauncherFactory.create(LauncherConfig.builder().enableTestExecutionListenerAutoRegistration(false).build());
+    }
+
+    /**
+     * The worker's browser is still open after the test, BrowserPool keeps it for the next one.
+     */
+    private static long jsHeapBytes() {
+        if (!WebDriverRunner.hasWebDriverStarted()) {
+            return -1;
+        }
+        try {
+            Object used = Selenide.executeJavaScript(
+                    "return window.performance && performance.memory ? performance.memory.usedJSHeapSize : null;");
+            return used instanceof Number ? ((Number) used).longValue() : -1;
+        } catch (WebDriverException e) {
+            return -1;
+        }
+    }
+
+    private Interval interval(long elapsedSeconds, Sample previous, Sample current) {
+        long heap = 0;
+        boolean anyHeap = false;
+        for (int i = 0; i < jsHeap.length(); i++) {
+            if (jsHeap.get(i) >= 0) {
+                heap += jsHeap.get(i);
+                anyHeap = true;
+            }
+        }
+        return new Interval(elapsedSeconds, tests.sumThenReset(), failures.sumThenReset(),
+                latency.getIntervalHistogram(), anyHeap ? heap : -1, current.driverRss, current.browserRss,
+                current.oldGen, current.gcCount - previous.gcCount, current.gcMillis - previous.gcMillis);
+    }
+
+    /**
+     * Compares the last third of the run with the first one and returns what went wrong, if anything.
+     */
+    public List<String> check(double maxDrift, double maxGrowth, double maxFailureRate) {
+        List<String> problems = new ArrayList<>();
+        long total = intervals.stream().mapToLong(interval -> interval.tests).sum();
+        long failed = intervals.stream().mapToLong(interval -> interval.failures).sum();
+        if (total == 0) {
+            problems.add("no test finished");
+            return problems;
+        }
+        if ((double) failed / total > maxFailureRate) {
+            problems.add(String.format(Locale.ROOT, "%d of %d tests failed", failed, total));
+        }
+        List<Interval> compared = intervals.isEmpty() ? intervals : intervals.subList(1, intervals.size());
+        int third = compared.size() / 3;
+        if (third == 0) {
+            return problems;
+        }
+        List<Interval> first = compared.subList(0, third);
+        List<Interval> lastThird = compared.subList(compared.size() - third, compared.size());
+        double before = median(first, interval -> interval.tests == 0 ? -1 : interval.latency.getValueAtPercentile(95));
+        double after = median(lastThird, interval -> interval.tests == 0 ? -1 : interval.latency.getValueAtPercentile(95));
+        if (before > 0 && after > before * maxDrift) {
+            problems.add(String.format(Locale.ROOT, "p95 latency drifted from %.0f ms to %.0f ms", before, after));
+        }
+        growth(problems, "JS heap", first, lastThird, interval -> interval.jsHeap, maxGrowth);
+        growth(problems, "chromedriver RSS", first, lastThird, interval -> interval.driverRss, maxGrowth);
+        growth(problems, "browser RSS", first, lastThird, interval -> interval.browserRss, maxGrowth);
+        growth(problems, "JVM old generation", first, lastThird, interval -> interval.oldGen, maxGrowth);
+        return problems;
+    }
+
+    private static void growth(List<String> problems, String series, List<Interval> first, List<Interval> last,
+                               Metric metric, double maxGrowth) {
+        double before = median(first, metric);
+        double after = median(last, metric);
+        if (before > 0 && after > before * (1 + maxGrowth)) {
+            problems.add(String.format(Locale.ROOT, "%s grew from %.1f MB to %.1f MB", series,
+                    before / (1 << 20), after / (1 << 20)));
+        }
+    }
+
+    /**
+     * Median of the known values, -1 when there are none.
+     */
+    private static double median(List<Interval> intervals, Metric metric) {
+        double[] values = intervals.stream().mapToDouble(metric::of).filter(value -> value >= 0).sorted().toArray();
+        if (values.length == 0) {
+            return -1;
+        }
+        int middle = values.length / 2;
+        return values.length % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2;
+    }
+
+    public void report(PrintStream out, List<String> problems) {
+        out.println(String.join("  ", columns));
+        for (Interval interval : intervals) {
+            out.println(interval.row("  "));
+        }
+        if (problems.isEmpty()) {
+            out.println("Soak run passed");
+        } else {
+            problems.forEach(problem -> out.println("FAILED: " + problem));
+        }
+    }
+
+    /**
+     * Writes the time series as soak.csv and the verdict as soak.txt.
+     */
+    public void write(Path dir, List<String> problems) {
+        try {
+            Files.createDirectories(dir);
+            StringBuilder csv = new StringBuilder(String.join(",", columns)).append('\n');
+            for (Interval interval : intervals) {
+                csv.append(interval.row(",")).append('\n');
+            }
+            Files.write(dir.resolve("soak.csv"), csv.toString().getBytes(StandardCharsets.UTF_8));
+            String verdict = problems.isEmpty() ? "passed\n" : String.join("\n", problems) + "\n";
+            Files.write(dir.resolve("soak.txt"), verdict.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private interface Metric {
+        double of(Interval interval);
+    }
+
+    private final class ScenarioListener implements TestExecutionListener {
+        private final Map<String, Long> started = new ConcurrentHashMap<>();
+
+        @Override
+        public void executionStarted(TestIdentifier testIdentifier) {
+            if (testIdentifier.isTest()) {
+                started.put(testIdentifier.getUniqueId(), System.nanoTime());
+            }
+        }
+
+        @Override
+        public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+            Long start = started.remove(testIdentifier.getUniqueId());
+            if (start == null) {
+                return;
+            }
+            latency.recordValue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            tests.increment();
+            if (testExecutionResult.getStatus() == TestExecutionResult.Status.FAILED) {
+                failures.increment();
+            }
+        }
+    }
+
+    private static final class Interval {
+        private final long elapsedSeconds;
+        private final long tests;
+        private final long failures;
+        private final Histogram latency;
+        private final long jsHeap;
+        private final long driverRss;
+        private final long browserRss;
+        private final long oldGen;
+        private final long gcCount;
+        private final long gcMillis;
+
+        Interval(long elapsedSeconds, long tests, long failures, Histogram latency, long jsHeap, long driverRss,
+                 long browserRss, long oldGen, long gcCount, long gcMillis) {
+            this.elapsedSeconds = elapsedSeconds;
+            this.tests = tests;
+            this.failures = failures;
+            this.latency = latency;
+            this.jsHeap = jsHeap;
+            this.driverRss = driverRss;
+            this.browserRss = browserRss;
+            this.oldGen = oldGen;
+            this.gcCount = gcCount;
+            this.gcMillis = gcMillis;
+        }
+
+        String row(String separator) {
+            return String.join(separator, String.valueOf(elapsedSeconds), String.valueOf(tests),
+                    String.valueOf(failures),
+                    String.valueOf(latency.getValueAtPercentile(50)), String.valueOf(latency.getValueAtPercentile(95)),
+                    String.valueOf(latency.getValueAtPercentile(99)), String.valueOf(latency.getMaxValue()),
+                    megabytes(jsHeap), megabytes(driverRss), megabytes(browserRss), megabytes(oldGen),
+                    String.valueOf(gcCount), String.valueOf(gcMillis));
+        }
+
+        private static String megabytes(long bytes) {
+            return bytes < 0 ? "" : String.format(Locale.ROOT, "%.1f", bytes / (double) (1 << 20));
+        }
+    }
+
+    /**
+     * Process and JVM memory at one point in time; -1 where it can't be read.
+     */
+    private static final class Sample {
+        private long driverRss = -1;
+        private long browserRss = -1;
+        private long oldGen;
+        private long gcCount;
+        private long gcMillis;
+
+        static Sample take() {
+            Sample sample = new Sample();
+            for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+                sample.gcCount += Math.max(0, collector.getCollectionCount());
+                sample.gcMillis += Math.max(0, collector.getCollectionTime());
+            }
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                MemoryUsage afterGc = pool.getType() == MemoryType.HEAP ? pool.getCollectionUsage() : null;
+                if (afterGc != null && (pool.getName().contains("Old") || pool.getName().contains("Tenured"))) {
+                    sample.oldGen += afterGc.getUsed();
+                }
+            }
+            sample.readProcesses();
+            return sample;
+        }
+
+        /**
+         * Sums VmRSS of this JVM's descendants, chromedriver apart from the browsers it started.
+         */
+        private void readProcesses() {
+            Path proc = Paths.get("/proc");
+            if (!Files.isDirectory(proc)) {
+                return;
+            }
+            Map<String, List<String>> children = new HashMap<>();
+            Map<String, String> names = new HashMap<>();
+            try (Stream<Path> entries = Files.list(proc)) {
+                entries.map(path -> path.getFileName().toString())
+                        .filter(pid -> pid.chars().allMatch(Character::isDigit))
+                        .forEach(pid -> {
+                            String stat = read(proc.resolve(pid).resolve("stat"));
+                            int close = stat.lastIndexOf(')');
+                            if (close < 0) {
+                                return;
+                            }
+                            names.put(pid, stat.substring(stat.indexOf('(') + 1, close));
+                            String[] fields = stat.substring(close + 2).split(" ");
+                            children.computeIfAbsent(fields[1], key -> new ArrayList<>()).add(pid);
+                        });
+                String self = Files.readSymbolicLink(proc.resolve("self")).getFileName().toString();
+                driverRss = 0;
+                browserRss = 0;
+                Deque<String> pending = new ArrayDeque<>(children.getOrDefault(self, new ArrayList<>()));
+                while (!pending.isEmpty()) {
+                    String pid = pending.poll();
+                    pending.addAll(children.getOrDefault(pid, new ArrayList<>()));
+                    String name = names.get(pid);
+                    if (name == null) {
+                        continue;
+                    }
+                    long rss = rss(read(proc.resolve(pid).resolve("status")));
+                    if (name.contains("chromedriver")) {
+                        driverRss += rss;
+                    } else {
+                        browserRss += rss;
+                    }
+                }
+            } catch (IOException | UncheckedIOException e) {
+                driverRss = -1;
+                browserRss = -1;
+            }
+        }
+
+        private static long rss(String status) {
+            for (String line : status.split("\n")) {
+                if (line.startsWith("VmRSS:")) {
+                    String[] parts = line.trim().split("\\s+");
+                    return Long.parseLong(parts[1]) * 1024;
+                }
+            }
+            return 0;
+        }
+
+        // processes can exit between listing and reading
+        private static String read(Path file) {
+            try {
+                return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                return "";
+            }
+        }
+    }
+}
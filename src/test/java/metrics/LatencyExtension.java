@@ -0,0 +1,37 @@
+package metrics;
+
+import com.codeborne.selenide.logevents.SelenideLogger;
+import io.qameta.allure.Allure;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Times each scenario and its Selenide steps. The step table of a test is
+ * attached to its Allure result; run-wide percentiles are written by
+ * {@link LatencyReport} when the run finishes.
+ */
+public class LatencyExtension implements BeforeEachCallback, AfterEachCallback {
+    private static final ExtensionContext.Namespace namespace = ExtensionContext.Namespace.create(LatencyExtension.class);
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        StepTimingListener listener = new StepTimingListener();
+        SelenideLogger.addListener("timing", listener);
+        context.getStore(namespace).put("listener", listener);
+        context.getStore(namespace).put("start", System.nanoTime());
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        SelenideLogger.removeListener("timing");
+        long start = context.getStore(namespace).remove("start", Long.class);
+        StepTimingListener listener = context.getStore(namespace).remove("listener", StepTimingListener.class);
+        LatencyRegistry.recordScenario(scenarioOf(context), (System.nanoTime() - start) / 1_000_000);
+        Allure.addAttachment("Step latency", "text/plain", LatencyReport.table(listener.steps()));
+    }
+
+    static String scenarioOf(ExtensionContext context) {
+        return context.getRequiredTestClass().getSimpleName() + "." + context.getRequiredTestMethod().getName();
+    }
+}
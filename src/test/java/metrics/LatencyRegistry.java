@@ -0,0 +1,44 @@
+package metrics;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Run-wide latency histograms in milliseconds, one per Selenide step kind
+ * and one per scenario. Recording is lock-free and safe from parallel workers.
+ */
+public final class LatencyRegistry {
+    private static final Map<String, Histogram> steps = new ConcurrentHashMap<>();
+    private static final Map<String, Histogram> scenarios = new ConcurrentHashMap<>();
+
+    private LatencyRegistry() {
+    }
+
+    public static void recordStep(String step, long millis) {
+        record(steps, step, millis);
+    }
+
+    public static void recordScenario(String scenario, long millis) {
+        record(scenarios, scenario, millis);
+    }
+
+    public static Map<String, Histogram> steps() {
+        return new TreeMap<>(steps);
+    }
+
+    public static Map<String, Histogram> scenarios() {
+        return new TreeMap<>(scenarios);
+    }
+
+    static Histogram newHistogram() {
+        return new ConcurrentHistogram(3);
+    }
+
+    private static void record(Map<String, Histogram> histograms, String key, long millis) {
+        histograms.computeIfAbsent(key, k -> newHistogram()).recordValue(Math.max(0, millis));
+    }
+}
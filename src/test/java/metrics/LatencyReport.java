@@ -0,0 +1,85 @@
+package metrics;
+
+import org.HdrHistogram.Histogram;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Writes the run-wide step and scenario percentiles as a Prometheus text file
+ * ({@code latency.prom}) and a plain table into {@code latency.report.dir}.
+ */
+public class LatencyReport implements TestExecutionListener {
+    private static final double[] quantiles = {0.5, 0.95, 0.99};
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        Map<String, Histogram> steps = LatencyRegistry.steps();
+        Map<String, Histogram> scenarios = LatencyRegistry.scenarios();
+        if (steps.isEmpty() && scenarios.isEmpty()) {
+            return;
+        }
+        Path dir = Paths.get(System.getProperty("latency.report.dir", "build/reports/latency"));
+        StringBuilder prometheus = new StringBuilder();
+        summary(prometheus, "card_delivery_step_latency_milliseconds", "Latency of Selenide steps.",
+                "step", steps);
+        summary(prometheus, "card_delivery_scenario_latency_milliseconds", "Duration of test scenarios.",
+                "scenario", scenarios);
+        write(dir.resolve("latency.prom"), prometheus.toString());
+        write(dir.resolve("latency.txt"), table(steps) + System.lineSeparator() + table(scenarios));
+    }
+
+    static String table(Map<String, Histogram> histograms) {
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT, "%-60s %8s %8s %8s %8s %8s%n",
+                "name", "count", "p50", "p95", "p99", "max"));
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            Histogram histogram = entry.getValue();
+            table.append(String.format(Locale.ROOT, "%-60s %8d %8d %8d %8d %8d%n", entry.getKey(),
+                    histogram.getTotalCount(),
+                    histogram.getValueAtPercentile(50),
+                    histogram.getValueAtPercentile(95),
+                    histogram.getValueAtPercentile(99),
+                    histogram.getMaxValue()));
+        }
+        return table.toString();
+    }
+
+    private static void summary(StringBuilder out, String metric, String help, String label,
+                                Map<String, Histogram> histograms) {
+        out.append("# HELP ").append(metric).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(metric).append(" summary\n");
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            Histogram histogram = entry.getValue();
+            String name = label + "=\"" + escape(entry.getKey()) + "\"";
+            for (double quantile : quantiles) {
+                out.append(metric).append('{').append(name).append(",quantile=\"").append(quantile).append("\"} ")
+                        .append(histogram.getValueAtPercentile(quantile * 100)).append('\n');
+            }
+            out.append(metric).append("_sum{").append(name).append("} ")
+                    .append(Math.round(histogram.getMean() * histogram.getTotalCount())).append('\n');
+            out.append(metric).append("_count{").append(name).append("} ")
+                    .append(histogram.getTotalCount()).append('\n');
+        }
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static void write(Path file, String content) {
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package metrics;
+
+import com.codeborne.selenide.logevents.LogEvent;
+import com.codeborne.selenide.logevents.LogEventListener;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Records the duration of every Selenide step of one test, both into the
+ * run-wide {@link LatencyRegistry} and into the test's own histograms.
+ */
+public class StepTimingListener implements LogEventListener {
+    private final Map<String, Histogram> steps = new TreeMap<>();
+
+    @Override
+    public void beforeEvent(LogEvent currentLog) {
+    }
+
+    @Override
+    public void afterEvent(LogEvent currentLog) {
+        String step = stepOf(currentLog);
+        long millis = currentLog.getDuration();
+        LatencyRegistry.recordStep(step, millis);
+        steps.computeIfAbsent(step, k -> LatencyRegistry.newHistogram()).recordValue(Math.max(0, millis));
+    }
+
+    Map<String, Histogram> steps() {
+        return steps;
+    }
+
+    /**
+     * Steps are keyed by command, not by the element it ran on: commands logged
+     * with arguments by the Selenide method ("click", "set value", "fill"),
+     * the rest, like open(url), by their source ("open").
+     */
+    static String stepOf(LogEvent event) {
+        String subject = event.getSubject();
+        int end = subject == null ? -1 : subject.indexOf('(');
+        if (end > 0) {
+            return subject.substring(0, end);
+        }
+        String source = event.getElement();
+        return source == null ? "unknown" : source;
+    }
+}
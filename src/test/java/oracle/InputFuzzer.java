@@ -0,0 +1,438 @@
+package oracle;
+
+import util.CityCatalog;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Generates candidate values for one form field, checks each against
+ * {@link ValidationOracle} and keeps one representative per equivalence
+ * class: verdict, detail and whether the value is empty. Candidates are written into
+ * one reused buffer, so only the kept representatives allocate, and the
+ * shortest value found for a class wins.
+ * <p>
+ * Dates are fuzzed and checked as if today were a fixed day, and a
+ * representative holding a calendar date keeps its distance from that day
+ * when it is read. The same seed therefore gives the same classes and
+ * descriptions on every day.
+ */
+public final class InputFuzzer {
+
+    public enum Field {
+        CITY("city"), DATE("date"), NAME("name"), PHONE("phone");
+
+        private final String key;
+
+        Field(String key) {
+            this.key = key;
+        }
+
+        /**
+         * Field name as the order API reports it.
+         */
+        public String getKey() {
+            return key;
+        }
+    }
+
+    public static final class Representative {
+        private final Field field;
+        private final String input;
+        private final int code;
+        private final boolean dated;
+        private final long offset;
+
+        Representative(Field field, String input, int code) {
+            this.field = field;
+            this.input = input;
+            this.code = code;
+            ValidationOracle.Verdict verdict = ValidationOracle.verdict(code);
+            this.dated = field == Field.DATE
+                    && (verdict == ValidationOracle.Verdict.VALID || verdict == ValidationOracle.Verdict.DATE_NOT_AVAILABLE);
+            this.offset = dated ? typedEpochDay(input) - anchor : 0;
+        }
+
+        public Field getField() {
+            return field;
+        }
+
+        /**
+         * The value as typed today, dates before the field mask is applied.
+         */
+        public String getInput() {
+            if (!dated) {
+                return input;
+            }
+            int date = ValidationOracle.civilDate(ValidationOracle.today() + offset);
+            return replaceDateDigits(input, String.format(Locale.ROOT, "%02d%02d%04d",
+                    date % 100, date / 100 % 100, date / 10000));
+        }
+
+        /**
+         * The value with a calendar date shown by its distance from today,
+         * e.g. "today+12: dd.MM.yyyy", so it reads the same on every day.
+         */
+        public String getDescription() {
+            if (!dated) {
+                return input;
+            }
+            return "today" + (offset < 0 ? "" : "+") + offset + ": " + replaceDateDigits(input, "ddMMyyyy");
+        }
+
+        public ValidationOracle.Verdict getVerdict() {
+            return ValidationOracle.verdict(code);
+        }
+
+        public int getDetail() {
+            return ValidationOracle.detail(code);
+        }
+
+        public String getMessage() {
+            return getVerdict().getMessage();
+        }
+
+        public boolean isValid() {
+            return ValidationOracle.isValid(code);
+        }
+    }
+
+    public static final class Result {
+        private final Field field;
+        private final long candidates;
+        private final long nanos;
+        private final List<Representative> classes;
+
+        Result(Field field, long candidates, long nanos, List<Representative> classes) {
+            this.field = field;
+            this.candidates = candidates;
+            this.nanos = nanos;
+            this.classes = classes;
+        }
+
+        public Field getField() {
+            return field;
+        }
+
+        public long getCandidates() {
+            return candidates;
+        }
+
+        public double getCandidatesPerSecond() {
+            return nanos == 0 ? 0 : candidates * 1e9 / nanos;
+        }
+
+        /**
+         * One representative per class, valid ones included.
+         */
+        public List<Representative> getClasses() {
+            return classes;
+        }
+
+        public List<Representative> getInvalid() {
+            List<Representative> invalid = new ArrayList<>();
+            for (Representative representative : classes) {
+                if (!representative.isValid()) {
+                    invalid.add(representative);
+                }
+            }
+            return invalid;
+        }
+    }
+
+    private static final String russian = "АБВГДЕЖЗИЙКЛМНОПРСТУФХЦЧШЩЪЫЬЭЮЯабвгдежзийклмнопрстуфхцчшщъыьэюяЁё";
+    private static final String digits = "0123456789";
+    private static final String phoneSeparators = " ()-";
+    private static final String dateSeparators = "./- ";
+    // one pool per ValidationOracle character class, in class order
+    private static final String[] pools = {
+            russian,
+            "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ",
+            digits,
+            " ",
+            "-",
+            "\t\u2003",
+            "!\"#$%&'()*+,./:;<=>?@[\\]^_`{|}~",
+            "ЇїЄєІіЎўҐґÄäÖöÜüßÉé",
+            "©®™€£¥§°±×÷—№"
+    };
+    private static final int lengthBuckets = 2;
+    private static final int maxCode = 64 << 8;
+    // the day dates are fuzzed against instead of today
+    private static final long anchor = ValidationOracle.epochDay(2020, 6, 15);
+
+    private InputFuzzer() {
+    }
+
+    public static Result run(Field field, long candidates, long seed) {
+        SplittableRandom random = new SplittableRandom(seed * 31 + field.ordinal());
+        StringBuilder input = new StringBuilder(64);
+        Representative[] classes = new Representative[maxCode * lengthBuckets];
+        long started = System.nanoTime();
+        for (long i = 0; i < candidates; i++) {
+            input.setLength(0);
+            generate(field, random, input);
+            int code = check(field, input);
+            int key = code * lengthBuckets + lengthBucket(input.length());
+            Representative current = classes[key];
+            if (current == null || input.length() < current.input.length()) {
+                classes[key] = new Representative(field, input.toString(), code);
+            }
+        }
+        long nanos = System.nanoTime() - started;
+        List<Representative> found = new ArrayList<>();
+        for (Representative representative : classes) {
+            if (representative != null) {
+                found.add(representative);
+            }
+        }
+        return new Result(field, candidates, nanos, Collections.unmodifiableList(found));
+    }
+
+    /**
+     * Checks a candidate, dates as if today were the fuzzer's fixed day.
+     */
+    public static int check(Field field, CharSequence input) {
+        switch (field) {
+            case CITY:
+                return ValidationOracle.checkCity(input);
+            case DATE:
+                return ValidationOracle.checkTypedDate(input, anchor);
+            case NAME:
+                return ValidationOracle.checkName(input);
+            default:
+                return ValidationOracle.checkPhone(input);
+        }
+    }
+
+    /**
+     * Fuzzes every field and writes the invalid representatives to fuzz-&lt;field&gt;.csv.
+     */
+    public static void main(String[] args) {
+        long candidates = Long.getLong("fuzz.candidates", 2_000_000);
+        long seed = Long.getLong("fuzz.seed", 1);
+        Path dir = Paths.get(System.getProperty("fuzz.report.dir", "build/reports/fuzz"));
+        for (Field field : Field.values()) {
+            Result result = run(field, candidates, seed);
+            List<Representative> invalid = result.getInvalid();
+            System.out.println(String.format(Locale.ROOT, "%-5s %,d candidates, %,.0f/s, %d classes, %d invalid",
+                    field.getKey(), result.getCandidates(), result.getCandidatesPerSecond(),
+                    result.getClasses().size(), invalid.size()));
+            write(dir.resolve("fuzz-" + field.getKey() + ".csv"), invalid);
+        }
+    }
+
+    private static void write(Path file, List<Representative> representatives) {
+        List<Representative> sorted = new ArrayList<>(representatives);
+        sorted.sort(Comparator.comparing(Representative::getVerdict).thenComparingInt(Representative::getDetail));
+        try {
+            Files.createDirectories(file.getParent());
+            try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                out.write("field,input,verdict,detail,message\n");
+                for (Representative representative : sorted) {
+                    out.write(representative.getField().getKey() + "," + quote(representative.getInput()) + ","
+                            + representative.getVerdict() + "," + representative.getDetail() + ","
+                            + quote(representative.getMessage()) + "\n");
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static int lengthBucket(int length) {
+        return length == 0 ? 0 : 1;
+    }
+
+    private static void generate(Field field, SplittableRandom random, StringBuilder out) {
+        switch (field) {
+            case CITY:
+                city(random, out);
+                break;
+            case DATE:
+                date(random, out);
+                break;
+            case NAME:
+                name(random, out);
+                break;
+            default:
+                phone(random, out);
+        }
+    }
+
+    private static void name(SplittableRandom random, StringBuilder out) {
+        int length = random.nextInt(24);
+        for (int i = 0; i < length; i++) {
+            int pick = random.nextInt(20);
+            if (pick == 0) {
+                appendAny(random, out);
+            } else if (pick < 3) {
+                out.append(random.nextBoolean() ? ' ' : '-');
+            } else {
+                append(russian, random, out);
+            }
+        }
+    }
+
+    private static void phone(SplittableRandom random, StringBuilder out) {
+        if (random.nextInt(10) == 0) {
+            int length = random.nextInt(16);
+            for (int i = 0; i < length; i++) {
+                appendAny(random, out);
+            }
+            return;
+        }
+        if (random.nextInt(6) != 0) {
+            out.append('+');
+        }
+        int count = 9 + random.nextInt(5);
+        for (int i = 0; i < count; i++) {
+            if (random.nextInt(5) == 0) {
+                append(phoneSeparators, random, out);
+            }
+            if (random.nextInt(30) == 0) {
+                appendAny(random, out);
+            }
+            append(digits, random, out);
+        }
+    }
+
+    private static void city(SplittableRandom random, StringBuilder out) {
+        CityCatalog catalog = CityCatalog.get();
+        String city = catalog.get(random.nextInt(catalog.size()));
+        switch (random.nextInt(6)) {
+            case 0:
+                out.append(' ').append(city).append(' ');
+                break;
+            case 1:
+                boolean upper = random.nextBoolean();
+                for (int i = 0; i < city.length(); i++) {
+                    char c = city.charAt(i);
+                    out.append(upper ? Character.toUpperCase(c) : Character.toLowerCase(c));
+                }
+                break;
+            case 2:
+                out.append(city, 0, 1 + random.nextInt(city.length() - 1));
+                break;
+            case 3:
+                int replaced = random.nextInt(city.length());
+                out.append(city, 0, replaced);
+                appendAny(random, out);
+                out.append(city, replaced + 1, city.length());
+                break;
+            case 4:
+                out.append(city);
+                appendAny(random, out);
+                break;
+            default:
+                int length = random.nextInt(13);
+                for (int i = 0; i < length; i++) {
+                    append(russian, random, out);
+                }
+        }
+    }
+
+    /**
+     * Dates as typed: near the fixed day with assorted separators, impossible days and months, or noise.
+     */
+    private static void date(SplittableRandom random, StringBuilder out) {
+        switch (random.nextInt(4)) {
+            case 0:
+                int date = ValidationOracle.civilDate(anchor + random.nextInt(70) - 10);
+                appendDate(date % 100, date / 100 % 100, date / 10000, random, out);
+                break;
+            case 1:
+                int year = ValidationOracle.civilDate(anchor) / 10000 + random.nextInt(3) - 1;
+                appendDate(random.nextInt(40), random.nextInt(20), year, random, out);
+                break;
+            case 2:
+                int count = random.nextInt(11);
+                for (int i = 0; i < count; i++) {
+                    append(digits, random, out);
+                }
+                break;
+            default:
+                int length = random.nextInt(13);
+                for (int i = 0; i < length; i++) {
+                    appendAny(random, out);
+                }
+        }
+    }
+
+    /**
+     * Epoch day of the first eight digits, read as the date field's mask reads them.
+     */
+    private static long typedEpochDay(String typed) {
+        int[] parts = new int[3];
+        int digits = 0;
+        for (int i = 0; i < typed.length() && digits < 8; i++) {
+            char c = typed.charAt(i);
+            if (c >= '0' && c <= '9') {
+                int part = digits < 2 ? 0 : digits < 4 ? 1 : 2;
+                parts[part] = parts[part] * 10 + c - '0';
+                digits++;
+            }
+        }
+        return ValidationOracle.epochDay(parts[2], parts[1], parts[0]);
+    }
+
+    /**
+     * Replaces the first eight digits of a typed date, in order, with the given characters.
+     */
+    private static String replaceDateDigits(String typed, String replacement) {
+        StringBuilder out = new StringBuilder(typed.length());
+        int digits = 0;
+        for (int i = 0; i < typed.length(); i++) {
+            char c = typed.charAt(i);
+            if (c >= '0' && c <= '9' && digits < 8) {
+                c = replacement.charAt(digits++);
+            }
+            out.append(c);
+        }
+        return out.toString();
+    }
+
+    private static void appendDate(int day, int month, int year, SplittableRandom random, StringBuilder out) {
+        int separator = random.nextInt(dateSeparators.length() + 1);
+        appendDigits(day, 2, out);
+        appendSeparator(separator, out);
+        appendDigits(month, 2, out);
+        appendSeparator(separator, out);
+        appendDigits(year, 4, out);
+    }
+
+    private static void appendSeparator(int separator, StringBuilder out) {
+        if (separator < dateSeparators.length()) {
+            out.append(dateSeparators.charAt(separator));
+        }
+    }
+
+    private static void appendDigits(int value, int width, StringBuilder out) {
+        for (int divisor = width == 4 ? 1000 : 10; divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + value / divisor % 10));
+        }
+    }
+
+    private static void appendAny(SplittableRandom random, StringBuilder out) {
+        append(pools[random.nextInt(pools.length)], random, out);
+    }
+
+    private static void append(String pool, SplittableRandom random, StringBuilder out) {
+        out.append(pool.charAt(random.nextInt(pool.length())));
+    }
+}
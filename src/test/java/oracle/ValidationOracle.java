@@ -0,0 +1,404 @@
+package oracle;
+
+import util.CityCatalog;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The app's validation rules as plain character loops over {@link CharSequence}s,
+ * with no regular expressions, parsing or allocation per check.
+ * <p>
+ * Every check returns an int code: the {@link Verdict} ordinal in the low byte
+ * and a detail saying why the value is invalid above it, e.g. which kind of
+ * character broke a name or whether a phone has too few digits. Verdict and
+ * detail together identify an equivalence class of inputs.
+ */
+public final class ValidationOracle {
+    public static final int minDaysAhead = 3;
+
+    public enum Verdict {
+        VALID(null),
+        REQUIRED("Поле обязательно для заполнения"),
+        INVALID_CITY("Доставка в выбранный город недоступна"),
+        INVALID_DATE_FORMAT("Неверно введена дата"),
+        DATE_NOT_AVAILABLE("Заказ на выбранную дату невозможен"),
+        INVALID_NAME("Имя и Фамилия указаные неверно. Допустимы только русские буквы, пробелы и дефисы."),
+        INVALID_PHONE("Телефон указан неверно. Должно быть 11 цифр, например, +79012345678"),
+        AGREEMENT_REQUIRED("");
+
+        private final String message;
+
+        Verdict(String message) {
+            this.message = message;
+        }
+
+        /**
+         * Error text the app shows under the field, null for valid values.
+         */
+        public String getMessage() {
+            return message;
+        }
+    }
+
+    // character classes, also used as details of names and phones with a wrong character
+    public static final int russianLetter = 1;
+    public static final int latinLetter = 2;
+    public static final int digit = 3;
+    public static final int space = 4;
+    public static final int hyphen = 5;
+    public static final int otherWhitespace = 6;
+    public static final int punctuation = 7;
+    public static final int otherLetter = 8;
+    public static final int otherCharacter = 9;
+
+    public static final int phoneWithoutPlus = 20;
+    public static final int phoneTooFewDigits = 21;
+    public static final int phoneTooManyDigits = 22;
+
+    public static final int cityCaseMismatch = 30;
+    public static final int cityPrefix = 31;
+    public static final int cityUnknown = 32;
+
+    public static final int dateEmpty = 40;
+    public static final int dateIncomplete = 41;
+    public static final int dateBadCharacter = 42;
+    public static final int dateBadMonth = 43;
+    public static final int dateBadDay = 44;
+    public static final int datePast = 45;
+    public static final int dateTooSoon = 46;
+
+    private static final Verdict[] verdicts = Verdict.values();
+    private static final String[] cities;
+    private static volatile long today;
+    private static volatile long todayEndsAt;
+
+    static {
+        List<String> all = CityCatalog.get().all();
+        cities = all.toArray(new String[0]);
+        Arrays.sort(cities);
+    }
+
+    private ValidationOracle() {
+    }
+
+    public static Verdict verdict(int code) {
+        return verdicts[code & 0xff];
+    }
+
+    public static int detail(int code) {
+        return code >>> 8;
+    }
+
+    public static boolean isValid(int code) {
+        return (code & 0xff) == Verdict.VALID.ordinal();
+    }
+
+    public static int checkCity(CharSequence value) {
+        int start = trimStart(value);
+        int end = trimEnd(value, start);
+        if (start == end) {
+            return code(Verdict.REQUIRED, 0);
+        }
+        int low = 0;
+        int high = cities.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int compared = compare(cities[middle], value, start, end);
+            if (compared == 0) {
+                return code(Verdict.VALID, 0);
+            }
+            if (compared < 0) {
+                low = middle + 1;
+            } else {
+                high = middle - 1;
+            }
+        }
+        int detail = cityUnknown;
+        for (String city : cities) {
+            if (city.length() >= end - start && startsWithIgnoreCase(city, value, start, end)) {
+                if (city.length() == end - start) {
+                    detail = cityCaseMismatch;
+                    break;
+                }
+                detail = cityPrefix;
+            }
+        }
+        return code(Verdict.INVALID_CITY, detail);
+    }
+
+    /**
+     * Checks a date as the app receives it, "dd.MM.yyyy".
+     */
+    public static int checkDate(CharSequence value) {
+        if (value == null || value.length() == 0) {
+            return code(Verdict.INVALID_DATE_FORMAT, dateEmpty);
+        }
+        if (value.length() != 10) {
+            return code(Verdict.INVALID_DATE_FORMAT, dateIncomplete);
+        }
+        for (int i = 0; i < 10; i++) {
+            char c = value.charAt(i);
+            boolean ok = i == 2 || i == 5 ? c == '.' : c >= '0' && c <= '9';
+            if (!ok) {
+                return code(Verdict.INVALID_DATE_FORMAT, dateBadCharacter);
+            }
+        }
+        return checkDate(number(value, 0, 2), number(value, 3, 5), number(value, 6, 10), today());
+    }
+
+    /**
+     * Checks a date as typed into the date field, whose mask keeps the first eight digits only.
+     */
+    public static int checkTypedDate(CharSequence typed) {
+        return checkTypedDate(typed, today());
+    }
+
+    /**
+     * Same as {@link #checkTypedDate(CharSequence)} on the given day, an epoch day.
+     */
+    public static int checkTypedDate(CharSequence typed, long today) {
+        int day = 0;
+        int month = 0;
+        int year = 0;
+        int digits = 0;
+        for (int i = 0; typed != null && i < typed.length() && digits < 8; i++) {
+            char c = typed.charAt(i);
+            if (c < '0' || c > '9') {
+                continue;
+            }
+            int d = c - '0';
+            if (digits < 2) {
+                day = day * 10 + d;
+            } else if (digits < 4) {
+                month = month * 10 + d;
+            } else {
+                year = year * 10 + d;
+            }
+            digits++;
+        }
+        if (digits == 0) {
+            return code(Verdict.INVALID_DATE_FORMAT, dateEmpty);
+        }
+        if (digits < 8) {
+            return code(Verdict.INVALID_DATE_FORMAT, dateIncomplete);
+        }
+        return checkDate(day, month, year, today);
+    }
+
+    public static int checkName(CharSequence value) {
+        if (isBlank(value)) {
+            return code(Verdict.REQUIRED, 0);
+        }
+        for (int i = 0; i < value.length(); i++) {
+            int kind = classOf(value.charAt(i));
+            if (kind != russianLetter && kind != space && kind != hyphen) {
+                return code(Verdict.INVALID_NAME, kind);
+            }
+        }
+        return code(Verdict.VALID, 0);
+    }
+
+    /**
+     * A phone is "+" and 11 digits once spaces, brackets and hyphens are dropped.
+     */
+    public static int checkPhone(CharSequence value) {
+        if (isBlank(value)) {
+            return code(Verdict.REQUIRED, 0);
+        }
+        boolean plus = false;
+        boolean first = true;
+        int digits = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (isPhoneSeparator(c)) {
+                continue;
+            }
+            if (first) {
+                first = false;
+                if (c == '+') {
+                    plus = true;
+                    continue;
+                }
+                if (c >= '0' && c <= '9') {
+                    digits++;
+                    continue;
+                }
+                return code(Verdict.INVALID_PHONE, classOf(c));
+            }
+            if (c >= '0' && c <= '9') {
+                digits++;
+            } else {
+                return code(Verdict.INVALID_PHONE, classOf(c));
+            }
+        }
+        if (!plus) {
+            return code(Verdict.INVALID_PHONE, phoneWithoutPlus);
+        }
+        if (digits != 11) {
+            return code(Verdict.INVALID_PHONE, digits < 11 ? phoneTooFewDigits : phoneTooManyDigits);
+        }
+        return code(Verdict.VALID, 0);
+    }
+
+    public static int checkAgreement(boolean agreement) {
+        return code(agreement ? Verdict.VALID : Verdict.AGREEMENT_REQUIRED, 0);
+    }
+
+    public static boolean isPhoneSeparator(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r'
+                || c == '(' || c == ')' || c == '-';
+    }
+
+    public static int classOf(char c) {
+        if (c >= 'А' && c <= 'я' || c == 'Ё' || c == 'ё') {
+            return russianLetter;
+        }
+        if (c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z') {
+            return latinLetter;
+        }
+        if (c >= '0' && c <= '9') {
+            return digit;
+        }
+        if (c == ' ') {
+            return space;
+        }
+        if (c == '-') {
+            return hyphen;
+        }
+        if (Character.isWhitespace(c)) {
+            return otherWhitespace;
+        }
+        if (c < 0x80 && c > ' ') {
+            return punctuation;
+        }
+        return Character.isLetter(c) ? otherLetter : otherCharacter;
+    }
+
+    /**
+     * First day an order can be placed for, as an epoch day.
+     */
+    public static long firstAvailableDay() {
+        return today() + minDaysAhead;
+    }
+
+    public static long today() {
+        long now = System.currentTimeMillis();
+        if (now >= todayEndsAt) {
+            LocalDate date = LocalDate.now();
+            today = date.toEpochDay();
+            todayEndsAt = date.plusDays(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+        return today;
+    }
+
+    /**
+     * Days since 1970-01-01 of a proleptic Gregorian date (H. Hinnant's days_from_civil).
+     */
+    public static long epochDay(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - 719468;
+    }
+
+    /**
+     * The date of an epoch day packed as yyyyMMdd (H. Hinnant's civil_from_days).
+     */
+    public static int civilDate(long epochDay) {
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        long month = mp < 10 ? mp + 3 : mp - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return (int) (year * 10000 + month * 100 + day);
+    }
+
+    private static int checkDate(int day, int month, int year, long today) {
+        if (month < 1 || month > 12) {
+            return code(Verdict.INVALID_DATE_FORMAT, dateBadMonth);
+        }
+        if (day < 1 || day > lengthOfMonth(year, month)) {
+            return code(Verdict.INVALID_DATE_FORMAT, dateBadDay);
+        }
+        long date = epochDay(year, month, day);
+        if (date < today) {
+            return code(Verdict.DATE_NOT_AVAILABLE, datePast);
+        }
+        if (date < today + minDaysAhead) {
+            return code(Verdict.DATE_NOT_AVAILABLE, dateTooSoon);
+        }
+        return code(Verdict.VALID, 0);
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        if (month == 2) {
+            boolean leap = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+            return leap ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    private static int number(CharSequence value, int from, int to) {
+        int number = 0;
+        for (int i = from; i < to; i++) {
+            number = number * 10 + value.charAt(i) - '0';
+        }
+        return number;
+    }
+
+    private static int code(Verdict verdict, int detail) {
+        return verdict.ordinal() | detail << 8;
+    }
+
+    private static boolean isBlank(CharSequence value) {
+        return value == null || trimStart(value) == value.length();
+    }
+
+    // String.trim() semantics: everything up to ' ' is whitespace
+    private static int trimStart(CharSequence value) {
+        int start = 0;
+        while (value != null && start < value.length() && value.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(CharSequence value, int start) {
+        int end = value == null ? 0 : value.length();
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+
+    private static int compare(String city, CharSequence value, int start, int end) {
+        int length = Math.min(city.length(), end - start);
+        for (int i = 0; i < length; i++) {
+            int difference = city.charAt(i) - value.charAt(start + i);
+            if (difference != 0) {
+                return difference;
+            }
+        }
+        return city.length() - (end - start);
+    }
+
+    private static boolean startsWithIgnoreCase(String city, CharSequence value, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char a = Character.toLowerCase(city.charAt(i - start));
+            char b = Character.toLowerCase(value.charAt(i));
+            if (a != b) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,80 @@
+package order;
+
+import util.RequestData;
+
+/**
+ * Values a client enters into the order form. The date is kept as typed,
+ * e.g. "ddMMyyyy", every channel applies the date field mask itself.
+ */
+public final class Order {
+
+    private final String city;
+
+    private final String date;
+
+    private final String name;
+
+    private final String tel;
+
+    private final boolean agreement;
+
+    public Order(String city, String date, String name, String tel, boolean agreement) {
+        this.city = city;
+        this.date = date;
+        this.name = name;
+        this.tel = tel;
+        this.agreement = agreement;
+    }
+
+    public Order(String city, String date, RequestData requestData) {
+        this(city, date, requestData.getName(), requestData.getTel(), true);
+    }
+
+    /**
+     * Applies the date field mask the way typing does: non-digits are dropped
+     * and "ddMMyyyy" becomes "dd.MM.yyyy".
+     */
+    public static String maskDate(String date) {
+        if (date == null) {
+            return "";
+        }
+        StringBuilder masked = new StringBuilder(10);
+        int digits = 0;
+        for (int i = 0; i < date.length() && digits < 8; i++) {
+            char c = date.charAt(i);
+            if (c < '0' || c > '9') {
+                continue;
+            }
+            if (digits == 2 || digits == 4) {
+                masked.append('.');
+            }
+            masked.append(c);
+            digits++;
+        }
+        return masked.toString();
+    }
+
+    public Order withDate(String date) {
+        return new Order(city, date, name, tel, agreement);
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getTel() {
+        return tel;
+    }
+
+    public boolean isAgreement() {
+        return agreement;
+    }
+}
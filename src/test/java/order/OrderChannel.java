@@ -0,0 +1,16 @@
+package order;
+
+/**
+ * A way of placing orders with the card delivery app: through the browser
+ * or straight over HTTP. Scenarios written against it run in both modes.
+ */
+public interface OrderChannel {
+
+    OrderOutcome submit(Order order);
+
+    /**
+     * Confirms moving an already scheduled meeting of the same client to the order's date,
+     * after {@link #submit(Order)} of that order answered {@code REPLAN_REQUIRED}.
+     */
+    OrderOutcome replan(Order order);
+}
@@ -0,0 +1,23 @@
+package order;
+
+import api.OrderApiClient;
+import page.UiOrderChannel;
+
+/**
+ * Picks the channel with {@code -Dorder.channel}: "ui" (default) or "api".
+ * The api channel speaks the stand-in's order API only, see {@link OrderApiClient},
+ * so it checks the stand-in's rules rather than the app's.
+ */
+public final class OrderChannels {
+
+    private OrderChannels() {
+    }
+
+    public static boolean isApi() {
+        return "api".equals(System.getProperty("order.channel"));
+    }
+
+    public static OrderChannel forUrl(String url) {
+        return isApi() ? new OrderApiClient(url) : new UiOrderChannel(url);
+    }
+}
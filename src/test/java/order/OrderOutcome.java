@@ -0,0 +1,68 @@
+package order;
+
+import java.util.function.Function;
+
+/**
+ * What the app answered to a submitted order. A rejected order names the
+ * first invalid field ("city", "date", "name", "phone" or "agreement")
+ * and the error text shown for it; {@link #getError(String)} asks for
+ * the error of a particular field.
+ */
+public final class OrderOutcome {
+
+    public enum Status {
+        SCHEDULED, REPLAN_REQUIRED, REJECTED, NO_RESPONSE
+    }
+
+    private final Status status;
+
+    private final String field;
+
+    private final String message;
+
+    private final Function<String, String> errors;
+
+    public OrderOutcome(Status status, String field, String message) {
+        this(status, field, message, null);
+    }
+
+    /**
+     * @param errors looks up the error text of a field, null when the field isn't invalid
+     */
+    public OrderOutcome(Status status, String field, String message, Function<String, String> errors) {
+        this.status = status;
+        this.field = field;
+        this.message = message;
+        this.errors = errors;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Error text shown for the field, or null when the app didn't mark it invalid.
+     */
+    public String getError(String field) {
+        if (errors != null) {
+            return errors.apply(field);
+        }
+        return field.equals(this.field) ? message : null;
+    }
+
+    @Override
+    public String toString() {
+        if (field != null) {
+            return status + " " + field + ": " + message;
+        }
+        return message == null ? status.toString() : status + " " + message;
+    }
+}
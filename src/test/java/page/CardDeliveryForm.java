@@ -0,0 +1,127 @@
+package page;
+
+import com.codeborne.selenide.Selectors;
+import com.codeborne.selenide.Selenide;
+import com.codeborne.selenide.SelenideElement;
+import com.codeborne.selenide.logevents.LogEvent;
+import com.codeborne.selenide.logevents.SelenideLog;
+import com.codeborne.selenide.logevents.SelenideLogger;
+import order.Order;
+import util.RequestData;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.codeborne.selenide.Selenide.$;
+
+/**
+ * Order form of the card delivery page. Field values are written by a single
+ * script call instead of a setValue per field.
+ */
+public class CardDeliveryForm {
+    private static final String sendRequestButtonName = "Запланировать";
+    private static final String replanButtonName = "Перепланировать";
+    private static final long responseTimeout = 15000;
+
+    public static final NotificationWatcher.Target success = NotificationWatcher.Target
+            .notification("success", "[data-test-id='success-notification']", null);
+    public static final NotificationWatcher.Target replanRequired = NotificationWatcher.Target
+            .notification("replan", "button", replanButtonName);
+    public static final NotificationWatcher.Target fieldError = NotificationWatcher.Target
+            .fieldError("error", ".input_invalid");
+
+    private final SelenideElement agreement = $(".checkbox__box");
+    private final SelenideElement sendButton = $(new Selectors.ByText(sendRequestButtonName));
+    private final SelenideElement replanButton = $(new Selectors.ByText(replanButtonName));
+
+    public static CardDeliveryForm open(String url) {
+        FormSession.open(url);
+        return new CardDeliveryForm();
+    }
+
+    public CardDeliveryForm fill(String city, String date, RequestData requestData) {
+        return fill(city, date, requestData.getName(), requestData.getTel());
+    }
+
+    public CardDeliveryForm fill(String city, String date, String name, String tel) {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("city", valueOf(city));
+        values.put("date", Order.maskDate(date));
+        values.put("name", valueOf(name));
+        values.put("phone", valueOf(tel));
+        return set(values);
+    }
+
+    public CardDeliveryForm fill(String date, RequestData requestData) {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("date", Order.maskDate(date));
+        values.put("name", valueOf(requestData.getName()));
+        values.put("phone", valueOf(requestData.getTel()));
+        return set(values);
+    }
+
+    public CardDeliveryForm setCity(String city) {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("city", valueOf(city));
+        return set(values);
+    }
+
+    public CardDeliveryForm setDate(String date) {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("date", Order.maskDate(date));
+        return set(values);
+    }
+
+    public CardDeliveryForm agree() {
+        agreement.click();
+        return this;
+    }
+
+    public void submit() {
+        sendButton.click();
+    }
+
+    public void replan() {
+        replanButton.click();
+    }
+
+    /**
+     * Submits the form and returns as soon as the app shows a notification or a field error.
+     */
+    public NotificationWatcher.Response submitAndAwait() {
+        NotificationWatcher watcher = NotificationWatcher.arm(success, replanRequired, fieldError);
+        submit();
+        return watcher.await(responseTimeout);
+    }
+
+    /**
+     * Confirms rescheduling and returns as soon as the meeting is shown as planned on the given date.
+     */
+    public NotificationWatcher.Response replanAndAwait(String formattedDate) {
+        NotificationWatcher watcher = NotificationWatcher.arm(NotificationWatcher.Target
+                .notification("success", ".notification__content",
+                        "Встреча успешно запланирована на " + formattedDate));
+        replan();
+        return watcher.await(responseTimeout);
+    }
+
+    public SelenideElement error(String field) {
+        return $("[data-test-id='" + field + "'] .input__sub");
+    }
+
+    private CardDeliveryForm set(Map<String, String> values) {
+        SelenideLog log = SelenideLogger.beginStep("form", "fill", values.keySet());
+        try {
+            Selenide.executeJavaScript(Scripts.get("fill-form.js"), values);
+        } catch (RuntimeException e) {
+            SelenideLogger.commitStep(log, e);
+            throw e;
+        }
+        SelenideLogger.commitStep(log, LogEvent.EventStatus.PASS);
+        return this;
+    }
+
+    private static String valueOf(String value) {
+        return value == null ? "" : value;
+    }
+}
@@ -0,0 +1,36 @@
+package page;
+
+import com.codeborne.selenide.Selenide;
+import com.codeborne.selenide.WebDriverRunner;
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * Opens the order page once per browser and then resets the form in place
+ * for the following tests. A full reload happens only when the reset check
+ * fails, e.g. a notification or a field error of the previous test is still
+ * shown or the page was navigated away.
+ * Enabled with {@code -Dsession.reuse=true}.
+ */
+public class FormSession {
+    private static final boolean reuse = Boolean.getBoolean("session.reuse");
+
+    public static void open(String url) {
+        if (reuse && WebDriverRunner.hasWebDriverStarted() && reset(url)) {
+            return;
+        }
+        Selenide.open(url);
+    }
+
+    private static boolean reset(String url) {
+        try {
+            Object clean = Selenide.executeJavaScript(Scripts.get("reset-form.js"), url);
+            if (!Boolean.TRUE.equals(clean)) {
+                return false;
+            }
+            Selenide.clearBrowserCookies();
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package page;
+
+import com.codeborne.selenide.Selenide;
+import com.codeborne.selenide.WebDriverRunner;
+import com.codeborne.selenide.logevents.LogEvent;
+import com.codeborne.selenide.logevents.SelenideLog;
+import com.codeborne.selenide.logevents.SelenideLogger;
+import metrics.LatencyRegistry;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Waits for the app's answer to a click with a DOM mutation observer
+ * registered before the click, instead of polling for each expected element.
+ * The wait is logged as a Selenide step, so it shows up in the Allure report,
+ * and the time between the click and the answer, measured in the browser, is
+ * recorded in {@link LatencyRegistry} as the "notification in browser" step.
+ */
+public class NotificationWatcher {
+    private static final ThreadLocal<WebDriver> configured = new ThreadLocal<>();
+
+    private final List<Target> targets;
+
+    private NotificationWatcher(List<Target> targets) {
+        this.targets = targets;
+    }
+
+    public static NotificationWatcher arm(Target... targets) {
+        List<Map<String, Object>> arguments = new ArrayList<>();
+        List<Target> list = new ArrayList<>();
+        for (Target target : targets) {
+            Map<String, Object> argument = new LinkedHashMap<>();
+            argument.put("name", target.name);
+            argument.put("selector", target.selector);
+            argument.put("text", target.text);
+            argument.put("fresh", target.fresh);
+            arguments.add(argument);
+            list.add(target);
+        }
+        Selenide.executeJavaScript(Scripts.get("watch-notifications.js"), arguments);
+        return new NotificationWatcher(list);
+    }
+
+    public Response await(long timeoutMillis) {
+        WebDriver driver = WebDriverRunner.getWebDriver();
+        if (configured.get() != driver) {
+            driver.manage().timeouts().setScriptTimeout(timeoutMillis + 5000, TimeUnit.MILLISECONDS);
+            configured.set(driver);
+        }
+        SelenideLog log = SelenideLogger.beginStep("notification", "await", targets);
+        Object result = ((JavascriptExecutor) driver).executeAsyncScript(Scripts.get("await-notification.js"),
+                timeoutMillis);
+        if (!(result instanceof Map)) {
+            SelenideLogger.commitStep(log, LogEvent.EventStatus.FAIL);
+            return new Response(null, timeoutMillis);
+        }
+        Map<?, ?> values = (Map<?, ?>) result;
+        SelenideLogger.commitStep(log, LogEvent.EventStatus.PASS);
+        Response response = new Response((String) values.get("target"), ((Number) values.get("millis")).doubleValue());
+        LatencyRegistry.recordStep("notification in browser", Math.round(response.getMillis()));
+        return response;
+    }
+
+    public static final class Target {
+        private final String name;
+        private final String selector;
+        private final String text;
+        private final boolean fresh;
+
+        private Target(String name, String selector, String text, boolean fresh) {
+            this.name = name;
+            this.selector = selector;
+            this.text = text;
+            this.fresh = fresh;
+        }
+
+        /**
+         * Matches an element that appears or changes after the watcher is armed.
+         */
+        public static Target notification(String name, String selector, String text) {
+            return new Target(name, selector, text, true);
+        }
+
+        /**
+         * Matches an element shown after the click even if it was already on the page,
+         * like a field error left by a previous submit.
+         */
+        public static Target fieldError(String name, String selector) {
+            return new Target(name, selector, null, false);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            return text == null ? selector : selector + " \"" + text + "\"";
+        }
+    }
+
+    public static final class Response {
+        private final String target;
+        private final double millis;
+
+        private Response(String target, double millis) {
+            this.target = target;
+            this.millis = millis;
+        }
+
+        /**
+         * Name of the target that showed up, or null when nothing did before the timeout.
+         */
+        public String getTarget() {
+            return target;
+        }
+
+        /**
+         * Time from the click to the answer in the browser, or the timeout.
+         */
+        public double getMillis() {
+            return millis;
+        }
+
+        public boolean isTimedOut() {
+            return target == null;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package page;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Browser-side scripts kept in {@code src/test/resources/js}, read once per run.
+ */
+final class Scripts {
+    private static final Map<String, String> cache = new ConcurrentHashMap<>();
+
+    private Scripts() {
+    }
+
+    static String get(String name) {
+        return cache.computeIfAbsent(name, Scripts::read);
+    }
+
+    private static String read(String name) {
+        try (InputStream in = Scripts.class.getResourceAsStream("/js/" + name)) {
+            if (in == null) {
+                throw new IllegalArgumentException("No script " + name);
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package page;
+
+import com.codeborne.selenide.Selenide;
+import order.Order;
+import order.OrderChannel;
+import order.OrderOutcome;
+
+import java.util.Map;
+
+/**
+ * Places orders through the order form in the current thread's browser.
+ * Holds no browser state itself, so one instance serves all workers.
+ */
+public class UiOrderChannel implements OrderChannel {
+    private final String url;
+
+    public UiOrderChannel(String url) {
+        this.url = url;
+    }
+
+    @Override
+    public OrderOutcome submit(Order order) {
+        CardDeliveryForm form = CardDeliveryForm.open(url);
+        form.fill(order.getCity(), order.getDate(), order.getName(), order.getTel());
+        if (order.isAgreement()) {
+            form.agree();
+        }
+        return outcomeOf(form.submitAndAwait());
+    }
+
+    @Override
+    public OrderOutcome replan(Order order) {
+        return outcomeOf(new CardDeliveryForm().replanAndAwait(Order.maskDate(order.getDate())));
+    }
+
+    private static OrderOutcome outcomeOf(NotificationWatcher.Response response) {
+        if (response.isTimedOut()) {
+            return new OrderOutcome(OrderOutcome.Status.NO_RESPONSE, null, null);
+        }
+        if (CardDeliveryForm.replanRequired.getName().equals(response.getTarget())) {
+            return new OrderOutcome(OrderOutcome.Status.REPLAN_REQUIRED, null, null);
+        }
+        if (!CardDeliveryForm.fieldError.getName().equals(response.getTarget())) {
+            return new OrderOutcome(OrderOutcome.Status.SCHEDULED, null, null);
+        }
+        Map<?, ?> error = Selenide.executeJavaScript(Scripts.get("read-error.js"));
+        if (error == null) {
+            return new OrderOutcome(OrderOutcome.Status.NO_RESPONSE, null, null);
+        }
+        return new OrderOutcome(OrderOutcome.Status.REJECTED, (String) error.get("field"), (String) error.get("message"),
+                UiOrderChannel::errorOf);
+    }
+
+    /**
+     * Reads the error under the field with the given data-test-id, so a test
+     * checks the field it expects rather than whichever invalid one comes first.
+     */
+    private static String errorOf(String field) {
+        Map<?, ?> error = Selenide.executeJavaScript(Scripts.get("read-error.js"), field);
+        return error == null ? null : (String) error.get("message");
+    }
+}
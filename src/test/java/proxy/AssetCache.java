@@ -0,0 +1,69 @@
+package proxy;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Least recently used responses, bounded by the total size of their bodies.
+ */
+final class AssetCache {
+
+    static final class Entry {
+        final int status;
+        final Map<String, List<String>> headers;
+        final byte[] body;
+
+        Entry(int status, Map<String, List<String>> headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+    private long evictions;
+
+    AssetCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    synchronized Entry get(String url) {
+        return entries.get(url);
+    }
+
+    /**
+     * Keeps the response unless its body alone is larger than the cache.
+     */
+    synchronized void put(String url, Entry entry) {
+        if (entry.body.length > maxBytes) {
+            return;
+        }
+        Entry previous = entries.put(url, entry);
+        if (previous != null) {
+            bytes -= previous.body.length;
+        }
+        bytes += entry.body.length;
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().body.length;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    synchronized long bytes() {
+        return bytes;
+    }
+
+    synchronized long evictions() {
+        return evictions;
+    }
+}
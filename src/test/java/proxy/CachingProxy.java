@@ -0,0 +1,226 @@
+package proxy;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HTTP forward proxy on the JDK HTTP server that answers repeated requests
+ * for static assets (scripts, styles, images, fonts) from an {@link AssetCache}.
+ * Everything else, the page itself and the order API included, is passed
+ * through untouched. HTTPS is not proxied; browsers are only pointed at it
+ * for plain HTTP.
+ */
+public class CachingProxy {
+    private static final Set<String> assetExtensions = new HashSet<>(Arrays.asList(
+            "js", "css", "map", "png", "jpg", "jpeg", "gif", "svg", "ico", "webp", "woff", "woff2", "ttf", "eot"));
+    // hop-by-hop headers are not forwarded, lengths are set by the server
+    private static final Set<String> skippedHeaders = new HashSet<>(Arrays.asList(
+            "connection", "proxy-connection", "keep-alive", "proxy-authorization", "te", "trailer",
+            "transfer-encoding", "upgrade", "content-length", "host"));
+    private static final Set<String> uncacheableDirectives = new HashSet<>(Arrays.asList(
+            "no-store", "no-cache", "private"));
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final AssetCache cache;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong passed = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+
+    private CachingProxy(HttpServer server, ExecutorService executor, AssetCache cache) {
+        this.server = server;
+        this.executor = executor;
+        this.cache = cache;
+    }
+
+    /**
+     * Starts the proxy on the loopback interface, port 0 picks a free one.
+     */
+    public static CachingProxy start(int port, long maxBytes) {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "caching-proxy");
+                thread.setDaemon(true);
+                return thread;
+            });
+            CachingProxy proxy = new CachingProxy(server, executor, new AssetCache(maxBytes));
+            server.createContext("/", proxy::handle);
+            server.setExecutor(executor);
+            server.start();
+            return proxy;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't start the caching proxy", e);
+        }
+    }
+
+    /**
+     * Proxy address as "host:port".
+     */
+    public String address() {
+        return server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public String summary() {
+        long lookups = hits.get() + misses.get();
+        return String.format(Locale.ROOT,
+                "Asset cache: %d hits, %d misses (%.1f%% hit rate), %d requests passed through, "
+                        + "%,d KiB saved, %d entries / %,d KiB cached, %d evicted",
+                hits.get(), misses.get(), lookups == 0 ? 0.0 : 100.0 * hits.get() / lookups, passed.get(),
+                bytesSaved.get() / 1024, cache.size(), cache.bytes() / 1024, cache.evictions());
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            URI uri = exchange.getRequestURI();
+            if (!uri.isAbsolute()) {
+                send(exchange, new AssetCache.Entry(400, new LinkedHashMap<>(), "Not a proxy request".getBytes(StandardCharsets.UTF_8)));
+                return;
+            }
+            String url = uri.toString();
+            if (!isAsset(exchange.getRequestMethod(), uri)) {
+                passed.incrementAndGet();
+                send(exchange, forward(exchange, uri));
+                return;
+            }
+            AssetCache.Entry cached = cache.get(url);
+            if (cached != null) {
+                hits.incrementAndGet();
+                bytesSaved.addAndGet(cached.body.length);
+                send(exchange, cached);
+                return;
+            }
+            misses.incrementAndGet();
+            AssetCache.Entry response = forward(exchange, uri);
+            if (isCacheable(response)) {
+                cache.put(url, response);
+            }
+            send(exchange, response);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static boolean isAsset(String method, URI uri) {
+        if (!"GET".equals(method) || uri.getRawQuery() != null) {
+            return false;
+        }
+        String path = uri.getPath();
+        int dot = path.lastIndexOf('.');
+        return dot > path.lastIndexOf('/') && assetExtensions.contains(path.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * A 200 answer whose Cache-Control, in any letter case, doesn't forbid reusing
+     * it without revalidation: no no-store, no-cache, private or max-age=0.
+     */
+    private static boolean isCacheable(AssetCache.Entry response) {
+        if (response.status != 200) {
+            return false;
+        }
+        for (Map.Entry<String, List<String>> header : response.headers.entrySet()) {
+            if (!"Cache-Control".equalsIgnoreCase(header.getKey())) {
+                continue;
+            }
+            for (String value : header.getValue()) {
+                for (String directive : value.split(",")) {
+                    String[] parts = directive.trim().toLowerCase(Locale.ROOT).split("=", 2);
+                    String name = parts[0].trim();
+                    if (uncacheableDirectives.contains(name)
+                            || name.equals("max-age") && parts.length == 2 && parts[1].trim().replace("\"", "").equals("0")) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private static AssetCache.Entry forward(HttpExchange exchange, URI uri) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) uri.toURL().openConnection(Proxy.NO_PROXY);
+        connection.setInstanceFollowRedirects(false);
+        connection.setRequestMethod(exchange.getRequestMethod());
+        for (Map.Entry<String, List<String>> header : exchange.getRequestHeaders().entrySet()) {
+            if (!skippedHeaders.contains(header.getKey().toLowerCase(Locale.ROOT))) {
+                for (String value : header.getValue()) {
+                    connection.addRequestProperty(header.getKey(), value);
+                }
+            }
+        }
+        byte[] requestBody = read(exchange.getRequestBody());
+        if (requestBody.length > 0) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(requestBody);
+            }
+        }
+        int status = connection.getResponseCode();
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> header : connection.getHeaderFields().entrySet()) {
+            if (header.getKey() != null && !skippedHeaders.contains(header.getKey().toLowerCase(Locale.ROOT))) {
+                headers.put(header.getKey(), header.getValue());
+            }
+        }
+        InputStream body = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        try {
+            return new AssetCache.Entry(status, headers, body == null ? new byte[0] : read(body));
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private static void send(HttpExchange exchange, AssetCache.Entry response) throws IOException {
+        Headers headers = exchange.getResponseHeaders();
+        for (Map.Entry<String, List<String>> header : response.headers.entrySet()) {
+            headers.put(header.getKey(), header.getValue());
+        }
+        boolean noBody = response.body.length == 0 || "HEAD".equals(exchange.getRequestMethod());
+        exchange.sendResponseHeaders(response.status, noBody ? -1 : response.body.length);
+        if (!noBody) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response.body);
+            }
+        }
+    }
+
+    private static byte[] read(InputStream in) throws IOException {
+        try (InputStream input = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+}
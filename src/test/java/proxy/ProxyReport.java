@@ -0,0 +1,34 @@
+package proxy;
+
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestPlan;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Prints the asset cache hit rate and bytes saved when the run finishes and
+ * writes them to {@code proxy.txt} in {@code proxy.report.dir}.
+ */
+public class ProxyReport implements TestExecutionListener {
+
+    @Override
+    public void testPlanExecutionFinished(TestPlan testPlan) {
+        String summary = SutProxy.summary();
+        if (summary == null) {
+            return;
+        }
+        System.out.println(summary);
+        Path file = Paths.get(System.getProperty("proxy.report.dir", "build/reports/proxy"), "proxy.txt");
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(file, (summary + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
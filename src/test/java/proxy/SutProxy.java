@@ -0,0 +1,43 @@
+package proxy;
+
+import com.codeborne.selenide.WebDriverRunner;
+import org.openqa.selenium.Proxy;
+
+/**
+ * Points the browsers at a {@link CachingProxy} when {@code sut.proxy.cache}
+ * is set. The proxy starts once per JVM, before the first browser, and keeps
+ * running until the JVM exits so browsers created later use the same cache.
+ * Chrome doesn't proxy localhost by default, so loopback addresses are taken
+ * off its bypass list; other browsers are expected to proxy them already.
+ */
+public final class SutProxy {
+    private static final long defaultMaxBytes = 64L * 1024 * 1024;
+    private static CachingProxy proxy;
+
+    private SutProxy() {
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.getBoolean("sut.proxy.cache");
+    }
+
+    public static synchronized void configure() {
+        if (!isEnabled() || proxy != null) {
+            return;
+        }
+        proxy = CachingProxy.start(0, Long.getLong("sut.proxy.cache.bytes", defaultMaxBytes));
+        Proxy webProxy = new Proxy();
+        webProxy.setHttpProxy(proxy.address());
+        WebDriverRunner.setProxy(webProxy);
+        String args = System.getProperty("chromeoptions.args");
+        String bypass = "--proxy-bypass-list=<-loopback>";
+        System.setProperty("chromeoptions.args", args == null || args.isEmpty() ? bypass : args + "," + bypass);
+    }
+
+    /**
+     * Hit and saving counts so far, or null when the proxy isn't running.
+     */
+    public static synchronized String summary() {
+        return proxy == null ? null : proxy.summary();
+    }
+}
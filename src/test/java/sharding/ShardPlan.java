@@ -0,0 +1,126 @@
+package sharding;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits tests into {@code shard.count} buckets of about the same total duration.
+ * <p>
+ * Tests with a known duration are dealt longest first to the bucket with the
+ * least total so far. Tests without history are spread by a stable hash of
+ * their key, which every fork computes the same way whatever order it
+ * discovers them in. This fork runs bucket {@code shard.index}.
+ * <p>
+ * Durations come from the local Allure history, or, with {@code shard.durations}
+ * set, only from that committed file: CI jobs may restore different caches, and
+ * every job has to see the same durations to compute the same plan. A missing
+ * file leaves every test to the hash.
+ */
+public final class ShardPlan {
+
+    private static final class Holder {
+        private static final ShardPlan plan = fromSystemProperties();
+    }
+
+    private final int count;
+
+    private final int index;
+
+    private final Map<String, Long> durations;
+
+    private final Map<String, Integer> shards = new HashMap<>();
+
+    ShardPlan(Map<String, Long> durations, int count, int index) {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException("Bad shard " + index + " of " + count);
+        }
+        this.count = count;
+        this.index = index;
+        this.durations = durations;
+        List<Map.Entry<String, Long>> known = new ArrayList<>(durations.entrySet());
+        known.sort(Map.Entry.<String, Long>comparingByValue(Collections.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()));
+        long[] totals = new long[count];
+        for (Map.Entry<String, Long> test : known) {
+            int lightest = 0;
+            for (int shard = 1; shard < count; shard++) {
+                if (totals[shard] < totals[lightest]) {
+                    lightest = shard;
+                }
+            }
+            totals[lightest] += test.getValue();
+            shards.put(test.getKey(), lightest);
+        }
+    }
+
+    public static ShardPlan get() {
+        return Holder.plan;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public int index() {
+        return index;
+    }
+
+    public boolean isSharded() {
+        return count > 1;
+    }
+
+    public boolean runsHere(String key) {
+        return shardOf(key) == index;
+    }
+
+    public int shardOf(String key) {
+        Integer shard = shards.get(key);
+        return shard != null ? shard : Math.floorMod(key.hashCode(), count);
+    }
+
+    /**
+     * Total known duration of a test method over all its invocations, 0 when unknown.
+     */
+    public long methodDuration(String className, String methodName) {
+        String prefix = className + "." + methodName + "|";
+        long total = 0;
+        for (Map.Entry<String, Long> entry : durations.entrySet()) {
+            if (entry.getKey().startsWith(prefix)) {
+                total += entry.getValue();
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Saves the durations of the local Allure history to {@code shard.durations},
+     * to be committed after a full run.
+     */
+    public static void main(String[] args) throws IOException {
+        File file = new File(System.getProperty("shard.durations", "src/test/resources/sharding/durations.json"));
+        Map<String, Long> durations = history(Long.MAX_VALUE);
+        TestDurations.save(file, durations);
+        System.out.println("Saved " + durations.size() + " test durations to " + file);
+    }
+
+    private static ShardPlan fromSystemProperties() {
+        int count = Integer.getInteger("shard.count", 1);
+        int index = Integer.getInteger("shard.index", 0);
+        String saved = System.getProperty("shard.durations", "");
+        Map<String, Long> durations = saved.isEmpty()
+                ? history(Long.getLong("shard.history.before", Long.MAX_VALUE))
+                : TestDurations.loadSaved(new File(saved));
+        return new ShardPlan(durations, count, index);
+    }
+
+    private static Map<String, Long> history(long before) {
+        File results = new File(System.getProperty("shard.history.results", "build/allure-results"));
+        File report = new File(System.getProperty("shard.history.report", "build/reports/allure-report"));
+        return TestDurations.load(results, report, before);
+    }
+}
@@ -0,0 +1,137 @@
+package sharding;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Mean duration of each test, in milliseconds, from earlier runs recorded by Allure:
+ * the raw results ({@code *-result.json}) and the report's {@code history/history.json}.
+ * Tests are keyed as {@code Class.method|display name}, so every parameterized row
+ * has its own entry.
+ */
+final class TestDurations {
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final Map<String, long[]> totals = new HashMap<>();
+    private final Map<String, String> keysByHistoryId = new HashMap<>();
+
+    private TestDurations() {
+    }
+
+    /**
+     * Reads files modified before {@code before}, so forks that start at different times
+     * while others are already writing results still see the same history.
+     */
+    static Map<String, Long> load(File resultsDir, File reportDir, long before) {
+        TestDurations durations = new TestDurations();
+        File[] results = resultsDir.listFiles((dir, name) -> name.endsWith("-result.json"));
+        if (results != null) {
+            for (File result : results) {
+                if (result.lastModified() < before) {
+                    durations.readResult(result);
+                }
+            }
+        }
+        File history = new File(reportDir, "history/history.json");
+        if (history.isFile() && history.lastModified() < before) {
+            durations.readHistory(history);
+        }
+        Map<String, Long> means = new HashMap<>();
+        durations.totals.forEach((key, total) -> means.put(key, total[0] / total[1]));
+        return means;
+    }
+
+    /**
+     * Reads durations saved by {@link #save}, an empty map when the file is missing or unreadable.
+     */
+    static Map<String, Long> loadSaved(File file) {
+        Map<String, Long> durations = new HashMap<>();
+        JsonNode saved = file.isFile() ? read(file) : null;
+        if (saved == null) {
+            return durations;
+        }
+        Iterator<Map.Entry<String, JsonNode>> entries = saved.fields();
+        while (entries.hasNext()) {
+            Map.Entry<String, JsonNode> entry = entries.next();
+            if (entry.getValue().asLong() > 0) {
+                durations.put(entry.getKey(), entry.getValue().asLong());
+            }
+        }
+        return durations;
+    }
+
+    /**
+     * Writes durations sorted by key, so that regenerating the file gives a readable diff.
+     */
+    static void save(File file, Map<String, Long> durations) throws IOException {
+        File dir = file.getAbsoluteFile().getParentFile();
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new IOException("Can't create " + dir);
+        }
+        mapper.writerWithDefaultPrettyPrinter().writeValue(file, new TreeMap<>(durations));
+    }
+
+    static String key(String className, String methodName, String displayName) {
+        return className + "." + methodName + "|" + displayName;
+    }
+
+    private void readResult(File file) {
+        JsonNode result = read(file);
+        if (result == null || !result.has("fullName") || !result.has("name") || isSkipped(result)) {
+            return;
+        }
+        String key = result.get("fullName").asText() + "|" + result.get("name").asText();
+        if (result.has("historyId")) {
+            keysByHistoryId.put(result.get("historyId").asText(), key);
+        }
+        add(key, result.path("stop").asLong() - result.path("start").asLong());
+    }
+
+    private void readHistory(File file) {
+        JsonNode history = read(file);
+        if (history == null) {
+            return;
+        }
+        Iterator<Map.Entry<String, JsonNode>> entries = history.fields();
+        while (entries.hasNext()) {
+            Map.Entry<String, JsonNode> entry = entries.next();
+            String key = keysByHistoryId.get(entry.getKey());
+            if (key == null) {
+                continue;
+            }
+            for (JsonNode item : entry.getValue().path("items")) {
+                if (!isSkipped(item) && item.path("time").has("duration")) {
+                    add(key, item.path("time").path("duration").asLong());
+                }
+            }
+        }
+    }
+
+    private void add(String key, long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        long[] total = totals.computeIfAbsent(key, k -> new long[2]);
+        total[0] += millis;
+        total[1]++;
+    }
+
+    private static boolean isSkipped(JsonNode node) {
+        return "skipped".equals(node.path("status").asText());
+    }
+
+    private static JsonNode read(File file) {
+        try {
+            return mapper.readTree(file);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
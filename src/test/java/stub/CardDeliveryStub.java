@@ -0,0 +1,192 @@
+package stub;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import util.CityCatalog;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-process stand-in for app-card-delivery.jar on the JDK HTTP server.
+ * <p>
+ * Serves an order page with the elements the tests use and the order API
+ * described in {@link api.OrderApiClient}. The page posts to the same API,
+ * so {@link OrderRules} is the only place the validation rules live.
+ * Scheduled meetings are kept per phone number: ordering another date for
+ * the same phone asks for rescheduling first.
+ */
+public class CardDeliveryStub {
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final String orderPath;
+    private final Map<String, byte[]> pages = new LinkedHashMap<>();
+    private final Map<String, String> meetings = new ConcurrentHashMap<>();
+
+    private CardDeliveryStub(HttpServer server, ExecutorService executor, String orderPath) {
+        this.server = server;
+        this.executor = executor;
+        this.orderPath = orderPath;
+    }
+
+    /**
+     * Starts the stand-in on the loopback interface, port 0 picks a free one.
+     */
+    public static CardDeliveryStub start(int port) {
+        String orderPath = "/" + System.getProperty("order.api.path", "api/delivery/order");
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            ExecutorService executor = Executors.newFixedThreadPool(
+                    Math.max(8, Runtime.getRuntime().availableProcessors() * 2), runnable -> {
+                        Thread thread = new Thread(runnable, "card-delivery-stub");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            CardDeliveryStub stub = new CardDeliveryStub(server, executor, orderPath);
+            stub.pages.put("/", stub.page("index.html"));
+            stub.pages.put("/static/app.js", stub.page("app.js"));
+            stub.pages.put("/static/app.css", stub.page("app.css"));
+            server.createContext("/", stub::handle);
+            server.setExecutor(executor);
+            server.start();
+            return stub;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Can't start the card delivery stand-in", e);
+        }
+    }
+
+    public String url() {
+        return "http://localhost:" + server.getAddress().getPort() + "/";
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals(orderPath) && "POST".equals(exchange.getRequestMethod())) {
+                order(exchange);
+                return;
+            }
+            byte[] page = pages.get(path);
+            if (page == null || !"GET".equals(exchange.getRequestMethod())) {
+                send(exchange, 404, "text/plain", "Not found".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            send(exchange, 200, contentType(path), page);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void order(HttpExchange exchange) throws IOException {
+        JsonNode order;
+        try {
+            order = mapper.readTree(read(exchange.getRequestBody()));
+        } catch (JsonProcessingException e) {
+            send(exchange, 400, "text/plain", e.getOriginalMessage().getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        if (order == null || !order.isObject()) {
+            send(exchange, 400, "text/plain", "Expected a JSON object".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        String date = text(order, "date");
+        String[] error = OrderRules.firstError(text(order, "city"), date, text(order, "name"), text(order, "phone"),
+                order.path("agreement").asBoolean());
+        Map<String, Object> response = new LinkedHashMap<>();
+        int code;
+        if (error != null) {
+            code = 400;
+            response.put("status", "REJECTED");
+            response.put("field", error[0]);
+            response.put("message", error[1]);
+        } else if (schedule(OrderRules.normalizePhone(text(order, "phone")), date,
+                order.path("replan").asBoolean())) {
+            code = 200;
+            response.put("status", "SCHEDULED");
+            response.put("date", date);
+        } else {
+            code = 409;
+            response.put("status", "REPLAN_REQUIRED");
+        }
+        send(exchange, code, "application/json; charset=utf-8", mapper.writeValueAsBytes(response));
+    }
+
+    private static String text(JsonNode order, String key) {
+        JsonNode value = order.get(key);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    /**
+     * Books the date for the phone unless another date is booked and the client hasn't confirmed moving it.
+     */
+    private boolean schedule(String phone, String date, boolean replan) {
+        if (replan) {
+            meetings.put(phone, date);
+            return true;
+        }
+        return date.equals(meetings.computeIfAbsent(phone, key -> date));
+    }
+
+    private byte[] page(String name) {
+        try (InputStream in = getClass().getResourceAsStream("/stub/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("No stand-in page " + name);
+            }
+            String page = new String(read(in), StandardCharsets.UTF_8)
+                    .replace("/*CITIES*/[]", mapper.writeValueAsString(CityCatalog.get().all()))
+                    .replace("/*ORDER_PATH*/", orderPath);
+            return page.getBytes(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String contentType(String path) {
+        if (path.endsWith(".js")) {
+            return "application/javascript; charset=utf-8";
+        }
+        if (path.endsWith(".css")) {
+            return "text/css; charset=utf-8";
+        }
+        return "text/html; charset=utf-8";
+    }
+
+    private static void send(HttpExchange exchange, int code, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(code, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] read(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+}
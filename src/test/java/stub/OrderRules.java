@@ -0,0 +1,94 @@
+package stub;
+
+import util.CityCatalog;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.regex.Pattern;
+
+/**
+ * Validation of an order as the card delivery app does it. Fields are checked
+ * in form order and only the first invalid one is reported.
+ */
+final class OrderRules {
+    static final String requiredText = "Поле обязательно для заполнения";
+    static final String invalidCityText = "Доставка в выбранный город недоступна";
+    static final String invalidDateFormatText = "Неверно введена дата";
+    static final String invalidDateText = "Заказ на выбранную дату невозможен";
+    static final String invalidNameText = "Имя и Фамилия указаные неверно. Допустимы только русские буквы, " +
+            "пробелы и дефисы.";
+    static final String invalidPhoneText = "Телефон указан неверно. Должно быть 11 цифр, например, +79012345678";
+    static final int minDaysAhead = 3;
+
+    private static final DateTimeFormatter dateFormat = DateTimeFormatter.ofPattern("dd.MM.uuuu")
+            .withResolverStyle(ResolverStyle.STRICT);
+    private static final Pattern name = Pattern.compile("[А-Яа-яЁё\\- ]+");
+    private static final Pattern phone = Pattern.compile("\\+\\d{11}");
+    private static final Pattern phoneSeparators = Pattern.compile("[\\s()\\-]");
+
+    private OrderRules() {
+    }
+
+    /**
+     * Returns {field, message} of the first invalid field, or null when the order is valid.
+     */
+    static String[] firstError(String city, String date, String name, String phone, boolean agreement) {
+        String error = checkCity(city);
+        if (error != null) {
+            return new String[]{"city", error};
+        }
+        error = checkDate(date);
+        if (error != null) {
+            return new String[]{"date", error};
+        }
+        error = checkName(name);
+        if (error != null) {
+            return new String[]{"name", error};
+        }
+        error = checkPhone(phone);
+        if (error != null) {
+            return new String[]{"phone", error};
+        }
+        return agreement ? null : new String[]{"agreement", ""};
+    }
+
+    static String normalizePhone(String value) {
+        return value == null ? "" : phoneSeparators.matcher(value).replaceAll("");
+    }
+
+    private static String checkCity(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return requiredText;
+        }
+        return CityCatalog.get().contains(value.trim()) ? null : invalidCityText;
+    }
+
+    private static String checkDate(String value) {
+        if (value == null || value.isEmpty()) {
+            return invalidDateFormatText;
+        }
+        LocalDate date;
+        try {
+            date = LocalDate.parse(value, dateFormat);
+        } catch (DateTimeParseException e) {
+            return invalidDateFormatText;
+        }
+        return date.isBefore(LocalDate.now().plusDays(minDaysAhead)) ? invalidDateText : null;
+    }
+
+    private static String checkName(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return requiredText;
+        }
+        return name.matcher(value).matches() ? null : invalidNameText;
+    }
+
+    private static String checkPhone(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return requiredText;
+        }
+        return phone.matcher(normalizePhone(value)).matches() ? null : invalidPhoneText;
+    }
+}
@@ -0,0 +1,31 @@
+package stub;
+
+/**
+ * Address of the app under test. {@code -Dsut.url} points the tests at a
+ * running app-card-delivery.jar; without it an in-process stand-in is
+ * started on a free port, once per JVM, so every Gradle fork gets its own.
+ */
+public final class Sut {
+    private static CardDeliveryStub stub;
+
+    private Sut() {
+    }
+
+    public static synchronized String url() {
+        String external = System.getProperty("sut.url");
+        if (external != null && !external.isEmpty()) {
+            return external;
+        }
+        if (stub == null) {
+            stub = CardDeliveryStub.start(0);
+        }
+        return stub.url();
+    }
+
+    public static synchronized void stop() {
+        if (stub != null) {
+            stub.stop();
+            stub = null;
+        }
+    }
+}
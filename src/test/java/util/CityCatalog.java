@@ -0,0 +1,186 @@
+package util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Cities the app delivers to, read once from {@code cities.txt}.
+ * <p>
+ * Each line holds a city and optionally ";weight" for {@link #randomWeighted()}
+ * (1 by default). Random picks take constant time and don't allocate:
+ * uniform picks index the array, weighted ones use Vose's alias tables.
+ * Prefix search is a range search over the names sorted case-insensitively.
+ */
+public final class CityCatalog {
+
+    private static final class Holder {
+        private static final CityCatalog catalog = load("/cities.txt");
+    }
+
+    private final String[] cities;
+
+    private final String[] sorted;
+
+    private final String[] keys;
+
+    private final double[] probability;
+
+    private final int[] alias;
+
+    private CityCatalog(String[] cities, double[] weights) {
+        this.cities = cities;
+        this.sorted = cities.clone();
+        Arrays.sort(sorted, (a, b) -> key(a).compareTo(key(b)));
+        this.keys = new String[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            keys[i] = key(sorted[i]);
+        }
+        this.probability = new double[cities.length];
+        this.alias = new int[cities.length];
+        buildAliasTables(weights);
+    }
+
+    public static CityCatalog get() {
+        return Holder.catalog;
+    }
+
+    public static CityCatalog load(String resource) {
+        List<String> cities = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        try (InputStream in = CityCatalog.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("No city list " + resource);
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                int separator = line.indexOf(';');
+                cities.add(separator < 0 ? line : line.substring(0, separator).trim());
+                weights.add(separator < 0 ? 1.0 : Double.parseDouble(line.substring(separator + 1).trim()));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (cities.isEmpty()) {
+            throw new IllegalArgumentException("City list " + resource + " is empty");
+        }
+        double[] weightArray = new double[weights.size()];
+        for (int i = 0; i < weightArray.length; i++) {
+            weightArray[i] = weights.get(i);
+        }
+        return new CityCatalog(cities.toArray(new String[0]), weightArray);
+    }
+
+    public int size() {
+        return cities.length;
+    }
+
+    public String get(int index) {
+        return cities[index];
+    }
+
+    /**
+     * All cities in file order.
+     */
+    public List<String> all() {
+        return Collections.unmodifiableList(Arrays.asList(cities));
+    }
+
+    public boolean contains(String city) {
+        if (city == null) {
+            return false;
+        }
+        int index = lowerBound(key(city));
+        return index < sorted.length && sorted[index].equals(city);
+    }
+
+    public String random() {
+        return cities[ThreadLocalRandom.current().nextInt(cities.length)];
+    }
+
+    public String randomWeighted() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int index = random.nextInt(cities.length);
+        return random.nextDouble() < probability[index] ? cities[index] : cities[alias[index]];
+    }
+
+    /**
+     * Cities starting with the prefix, ignoring case, in alphabetical order.
+     */
+    public List<String> withPrefix(String prefix) {
+        String key = key(prefix);
+        int from = lowerBound(key);
+        int to = lowerBound(key + Character.MAX_VALUE);
+        return Collections.unmodifiableList(Arrays.asList(sorted).subList(from, to));
+    }
+
+    private int lowerBound(String key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle].compareTo(key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void buildAliasTables(double[] weights) {
+        int n = weights.length;
+        double total = 0;
+        for (double weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative city weight " + weight);
+            }
+            total += weight;
+        }
+        double[] scaled = new double[n];
+        Deque<Integer> small = new ArrayDeque<>();
+        Deque<Integer> large = new ArrayDeque<>();
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights[i] * n / total;
+            (scaled[i] < 1 ? small : large).push(i);
+        }
+        while (!small.isEmpty() && !large.isEmpty()) {
+            int less = small.pop();
+            int more = large.pop();
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1;
+            (scaled[more] < 1 ? small : large).push(more);
+        }
+        while (!large.isEmpty()) {
+            int index = large.pop();
+            probability[index] = 1;
+            alias[index] = index;
+        }
+        while (!small.isEmpty()) {
+            int index = small.pop();
+            probability[index] = 1;
+            alias[index] = index;
+        }
+    }
+
+    private static String key(String city) {
+        return city.toLowerCase(Locale.ROOT);
+    }
+}
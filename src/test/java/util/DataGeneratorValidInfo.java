@@ -2,15 +2,90 @@ package util;
 
 import com.github.javafaker.Faker;
 
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class DataGeneratorValidInfo {
 
+    // Faker reads its locale files on creation and is not thread-safe, so every thread keeps one per locale
+    private static final ThreadLocal<Map<Locale, Faker>> fakers = ThreadLocal.withInitial(HashMap::new);
+
     public static RequestData generateUsersData(Locale locale){
 
-        Faker faker = new Faker(new Locale(locale.toLanguageTag()));
+        Faker faker = fakers.get().computeIfAbsent(locale, DataGeneratorValidInfo::newFaker);
+
+        return generateUsersData(faker);
+    }
+
+    /**
+     * Lazily generates {@code count} records with the calling thread's Faker.
+     */
+    public static Stream<RequestData> stream(Locale locale, long count){
+        return Stream.generate(() -> generateUsersData(locale)).limit(count);
+    }
+
+    /**
+     * Lazily generates {@code count} records, the same ones for the same locale and seed.
+     * The stream is sequential, its Faker is not shared with other threads.
+     */
+    public static Stream<RequestData> stream(Locale locale, long count, long seed){
+        Faker faker = newFaker(locale, new Random(seed));
+        Iterator<RequestData> records = new Iterator<RequestData>() {
+            private long left = count;
+
+            @Override
+            public boolean hasNext() {
+                return left > 0;
+            }
+
+            @Override
+            public RequestData next() {
+                left--;
+                return generateUsersData(faker);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliterator(records, count,
+                Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+
+    /**
+     * Fills a preallocated buffer and returns it.
+     */
+    public static RequestData[] generate(Locale locale, RequestData[] buffer){
+        Faker faker = fakers.get().computeIfAbsent(locale, DataGeneratorValidInfo::newFaker);
+        for (int i = 0; i < buffer.length; i++) {
+            buffer[i] = generateUsersData(faker);
+        }
+        return buffer;
+    }
+
+    /**
+     * Fills a preallocated buffer with the records {@link #stream(Locale, long, long)} gives for the seed.
+     */
+    public static RequestData[] generate(Locale locale, long seed, RequestData[] buffer){
+        Faker faker = newFaker(locale, new Random(seed));
+        for (int i = 0; i < buffer.length; i++) {
+            buffer[i] = generateUsersData(faker);
+        }
+        return buffer;
+    }
 
+    private static RequestData generateUsersData(Faker faker){
         return new RequestData(faker.name().fullName(), faker.phoneNumber().phoneNumber());
     }
 
+    private static Faker newFaker(Locale locale){
+        return new Faker(new Locale(locale.toLanguageTag()));
+    }
+
+    private static Faker newFaker(Locale locale, Random random){
+        return new Faker(new Locale(locale.toLanguageTag()), random);
+    }
 }
@@ -0,0 +1,16 @@
+// Completes as soon as the armed watcher has a result, or with null after the timeout.
+var timeout = arguments[0];
+var callback = arguments[arguments.length - 1];
+var state = window.__notificationWatcher;
+if (!state || state.result) {
+    callback(state ? state.result : null);
+    return;
+}
+state.callback = callback;
+setTimeout(function () {
+    if (!state.result) {
+        state.observer.disconnect();
+        state.callback = null;
+        callback(null);
+    }
+}, timeout);
@@ -0,0 +1,19 @@
+// Returns the error shown for the field with the data-test-id given as the argument,
+// or for the first invalid field of the form without one; null when there is none.
+var id = arguments[0];
+var invalid;
+if (id) {
+    var holder = document.querySelector("[data-test-id='" + id + "']");
+    invalid = holder && (holder.closest('.input_invalid') || holder.querySelector('.input_invalid'));
+} else {
+    invalid = document.querySelector('.input_invalid');
+}
+if (!invalid) {
+    return null;
+}
+var owner = id ? holder : invalid.closest('[data-test-id]');
+var sub = invalid.querySelector('.input__sub');
+return {
+    field: owner ? owner.getAttribute('data-test-id') : null,
+    message: sub ? sub.textContent : ''
+};
@@ -0,0 +1,49 @@
+// Puts the order form back into its initial state without a navigation.
+// Returns false when the page can't be reused and has to be reloaded.
+var url = arguments[0];
+if (location.href !== url) {
+    return false;
+}
+var visible = function (el) {
+    var style = getComputedStyle(el);
+    return el.getClientRects().length > 0 && style.visibility !== 'hidden' && style.opacity !== '0';
+};
+var notifications = document.querySelectorAll('.notification');
+for (var i = 0; i < notifications.length; i++) {
+    if (visible(notifications[i])) {
+        return false;
+    }
+}
+var setter = Object.getOwnPropertyDescriptor(HTMLInputElement.prototype, 'value').set;
+var fields = document.querySelectorAll("[data-test-id='city'] input, [data-test-id='date'] input, "
+    + "[data-test-id='name'] input, [data-test-id='phone'] input");
+if (fields.length !== 4) {
+    return false;
+}
+for (var j = 0; j < fields.length; j++) {
+    if (fields[j].value !== '') {
+        setter.call(fields[j], '');
+        fields[j].dispatchEvent(new Event('input', {bubbles: true}));
+        fields[j].dispatchEvent(new Event('change', {bubbles: true}));
+    }
+}
+var agreement = document.querySelector("[data-test-id='agreement'] input[type='checkbox']");
+if (agreement && agreement.checked) {
+    agreement.click();
+}
+if (document.activeElement) {
+    document.activeElement.blur();
+}
+localStorage.clear();
+sessionStorage.clear();
+// field errors belong to the app's own rendering and are left alone; one that
+// survived the reset would count as the next test's response, so reload instead
+if (document.querySelector('.input_invalid')) {
+    return false;
+}
+for (var k = 0; k < fields.length; k++) {
+    if (fields[k].value !== '') {
+        return false;
+    }
+}
+return !(agreement && agreement.checked);
@@ -0,0 +1,57 @@
+// Starts watching the page for the first target that shows up after the next click.
+// Field errors may already be on the page from a previous submit and count as soon as
+// the click is handled; "fresh" targets have to appear or change after arming.
+var targets = arguments[0];
+var visible = function (el) {
+    var style = getComputedStyle(el);
+    return el.getClientRects().length > 0 && style.visibility !== 'hidden' && style.opacity !== '0';
+};
+var matches = function (target, el) {
+    return visible(el) && (!target.text || el.textContent.indexOf(target.text) >= 0);
+};
+var previous = window.__notificationWatcher;
+if (previous && previous.observer) {
+    previous.observer.disconnect();
+}
+var state = window.__notificationWatcher = {clickedAt: null, result: null, callback: null};
+var stale = [];
+targets.forEach(function (target) {
+    document.querySelectorAll(target.selector).forEach(function (el) {
+        if (target.fresh && matches(target, el)) {
+            stale.push(el);
+        }
+    });
+});
+var check = function () {
+    if (state.result || state.clickedAt === null) {
+        return;
+    }
+    for (var i = 0; i < targets.length; i++) {
+        var elements = document.querySelectorAll(targets[i].selector);
+        for (var j = 0; j < elements.length; j++) {
+            if (stale.indexOf(elements[j]) < 0 && matches(targets[i], elements[j])) {
+                state.result = {target: targets[i].name, millis: performance.now() - state.clickedAt};
+                state.observer.disconnect();
+                if (state.callback) {
+                    state.callback(state.result);
+                }
+                return;
+            }
+        }
+    }
+};
+document.addEventListener('click', function () {
+    if (state.clickedAt === null) {
+        state.clickedAt = performance.now();
+        setTimeout(check, 0);
+    }
+}, {capture: true, once: true});
+state.observer = new MutationObserver(function (mutations) {
+    mutations.forEach(function (mutation) {
+        stale = stale.filter(function (el) {
+            return !el.contains(mutation.target);
+        });
+    });
+    check();
+});
+state.observer.observe(document.body, {childList: true, subtree: true, attributes: true, characterData: true});
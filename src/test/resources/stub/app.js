@@ -0,0 +1,117 @@
+(function () {
+    var cities = /*CITIES*/[];
+    var orderPath = '/*ORDER_PATH*/';
+    var form = document.querySelector('.form');
+    var field = function (id) {
+        return document.querySelector("[data-test-id='" + id + "']");
+    };
+    var city = field('city').querySelector('input');
+    var menu = field('city').querySelector('.menu');
+    var date = field('date').querySelector('input');
+    var name = field('name').querySelector('input');
+    var phone = field('phone').querySelector('input');
+    var agreement = field('agreement').querySelector('input');
+    var success = document.querySelector("[data-test-id='success-notification']");
+    var replan = document.querySelector("[data-test-id='replan-notification']");
+
+    var maskDate = function (value) {
+        var digits = value.replace(/\D/g, '').substring(0, 8);
+        var masked = '';
+        for (var i = 0; i < digits.length; i++) {
+            if (i === 2 || i === 4) {
+                masked += '.';
+            }
+            masked += digits.charAt(i);
+        }
+        return masked;
+    };
+    var pad = function (number) {
+        return (number < 10 ? '0' : '') + number;
+    };
+    var defaultDate = new Date();
+    defaultDate.setDate(defaultDate.getDate() + 3);
+    date.value = pad(defaultDate.getDate()) + '.' + pad(defaultDate.getMonth() + 1) + '.' + defaultDate.getFullYear();
+    date.addEventListener('input', function () {
+        var masked = maskDate(date.value);
+        if (masked !== date.value) {
+            date.value = masked;
+        }
+    });
+
+    var hideMenu = function () {
+        menu.hidden = true;
+        menu.innerHTML = '';
+    };
+    city.addEventListener('input', function () {
+        hideMenu();
+        var prefix = city.value.toLowerCase();
+        if (prefix.length < 2) {
+            return;
+        }
+        cities.filter(function (name) {
+            return name.toLowerCase().indexOf(prefix) === 0 && name !== city.value;
+        }).forEach(function (name) {
+            var item = document.createElement('span');
+            item.className = 'menu-item';
+            item.innerHTML = '<span class="menu-item__control"></span>';
+            item.firstChild.textContent = name;
+            item.addEventListener('mousedown', function (event) {
+                event.preventDefault();
+                city.value = name;
+                hideMenu();
+            });
+            menu.appendChild(item);
+        });
+        menu.hidden = menu.childNodes.length === 0;
+    });
+    city.addEventListener('blur', hideMenu);
+
+    var clearErrors = function () {
+        form.querySelectorAll('.input_invalid').forEach(function (el) {
+            el.classList.remove('input_invalid');
+            var sub = el.querySelector('.input__sub');
+            if (sub) {
+                sub.textContent = '';
+            }
+        });
+    };
+    var send = function (confirmReplan) {
+        clearErrors();
+        success.hidden = true;
+        replan.hidden = true;
+        var request = new XMLHttpRequest();
+        request.open('POST', orderPath);
+        request.setRequestHeader('Content-Type', 'application/json; charset=utf-8');
+        request.onload = function () {
+            var response = JSON.parse(request.responseText);
+            if (response.status === 'SCHEDULED') {
+                success.querySelector('.notification__content').textContent =
+                    'Встреча успешно запланирована на ' + response.date;
+                success.hidden = false;
+            } else if (response.status === 'REPLAN_REQUIRED') {
+                replan.hidden = false;
+            } else if (response.status === 'REJECTED') {
+                var invalid = field(response.field);
+                invalid.classList.add('input_invalid');
+                var sub = invalid.querySelector('.input__sub');
+                if (sub) {
+                    sub.textContent = response.message;
+                }
+            }
+        };
+        request.send(JSON.stringify({
+            city: city.value,
+            date: date.value,
+            name: name.value,
+            phone: phone.value,
+            agreement: agreement.checked,
+            replan: confirmReplan
+        }));
+    };
+    document.querySelector("[data-action='send']").addEventListener('click', function () {
+        send(false);
+    });
+    document.querySelector("[data-action='replan']").addEventListener('click', function () {
+        send(true);
+    });
+})();